@@ -11,13 +11,16 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.bydefault.smartclinic.dtos.common.*;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
 import org.bydefault.smartclinic.entities.Role;
 import org.bydefault.smartclinic.services.admin.AdminServices;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -131,6 +134,29 @@ public class AdminController {
         return ResponseEntity.ok(services.deleteAppointment(id));
     }
 
+    @Operation(summary = "Import appointments", description = "Import appointments from a CSV file (header: doctorId,patientId,appointmentDate,status,description) or a JSON array. Conflicting or invalid records are skipped and reported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Appointments imported",
+                    content = @Content(schema = @Schema(implementation = AppointmentImportResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Unreadable import file",
+                    content = @Content(schema = @Schema()))
+    })
+    @PostMapping(value = "appointments/import/", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AppointmentImportResultDto> importAppointments(@RequestPart("file") MultipartFile file) {
+        return ResponseEntity.ok(services.importAppointments(file));
+    }
+
+    @Operation(summary = "Change the status of many appointments", description = "Move appointments selected by ids, or all appointments of a doctor on a date, to a new status in one statement")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Appointments updated"),
+            @ApiResponse(responseCode = "400", description = "Invalid selection or status",
+                    content = @Content(schema = @Schema()))
+    })
+    @PostMapping("appointments/transition/")
+    public ResponseEntity<String> transitionAppointments(@Valid @RequestBody AppointmentStatusTransitionDto transitionDto) {
+        return ResponseEntity.ok(services.transitionAppointments(transitionDto));
+    }
+
     @Operation(summary = "All appointment for a doctor", description = "Retrieve all appointments for a specific doctor")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of appointments for the doctor",
@@ -223,7 +249,27 @@ public class AdminController {
                     content = @Content(schema = @Schema()))
     })
     @GetMapping("specialties/{id}/doctors/")
-    public ResponseEntity<List<DoctorDto>> getDoctorsBySpecialtyId(@PathVariable Long id) {
+    public ResponseEntity<List<DoctorListItemDto>> getDoctorsBySpecialtyId(@PathVariable Long id) {
         return ResponseEntity.ok(services.getAllDoctorsBySpecialtyId(id));
     }
+
+    @Operation(summary = "Cache statistics", description = "Size and hit/miss counters of the in-process caches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cache statistics",
+                    content = @Content(schema = @Schema(implementation = CacheStatsDto.class)))
+    })
+    @GetMapping("caches/")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(services.getCacheStats());
+    }
+
+    @Operation(summary = "Password hashing statistics", description = "Threads, queue depth and rejections of the password hashing executor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Password hashing statistics",
+                    content = @Content(schema = @Schema(implementation = PasswordHashingStatsDto.class)))
+    })
+    @GetMapping("password-hashing/")
+    public ResponseEntity<PasswordHashingStatsDto> getPasswordHashingStats() {
+        return ResponseEntity.ok(services.getPasswordHashingStats());
+    }
 }
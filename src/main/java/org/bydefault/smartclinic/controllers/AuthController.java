@@ -91,6 +91,21 @@ public class AuthController {
         return ResponseEntity.ok(userServices.refreshToken(token));
     }
 
+    @Operation(summary = "Logout", description = "Revoke the access token of the request and the refresh token cookie if sent")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Logged out successfully",
+                    content = @Content(schema = @Schema(implementation = String.class))),
+            @ApiResponse(responseCode = "401", description = "Not authenticated",
+                    content = @Content(schema = @Schema()))
+    })
+    @PostMapping("logout/")
+    public ResponseEntity<String> logout(@RequestHeader("Authorization") String authorization,
+                                         @CookieValue(value = "refresh_token", required = false) String refreshToken,
+                                         HttpServletResponse response) {
+        var accessToken = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+        return ResponseEntity.ok(userServices.logout(accessToken, refreshToken, response));
+    }
+
     @Operation(summary = "Resend code", description = "Resend code to verify the user account or your account")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Code resend successfully",
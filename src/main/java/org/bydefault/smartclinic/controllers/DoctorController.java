@@ -13,16 +13,37 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
 import jakarta.validation.Validator;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bydefault.smartclinic.dtos.common.AppointmentDto;
 import org.bydefault.smartclinic.dtos.common.AvailabilityDto;
+import org.bydefault.smartclinic.dtos.common.AvailableSlotDto;
+import org.bydefault.smartclinic.dtos.common.CalendarDayDto;
 import org.bydefault.smartclinic.dtos.common.DoctorDto;
+import org.bydefault.smartclinic.dtos.common.KeysetPageDto;
 import org.bydefault.smartclinic.dtos.common.MedicalReportDto;
+import org.bydefault.smartclinic.dtos.common.NearbyDoctorDto;
+import org.bydefault.smartclinic.dtos.common.SuggestionDto;
+import org.bydefault.smartclinic.dtos.doctor.AppointmentInboxItemDto;
+import org.bydefault.smartclinic.dtos.doctor.AvailabilityRuleDto;
+import org.bydefault.smartclinic.dtos.doctor.AvailabilityRuleExclusionDto;
+import org.bydefault.smartclinic.dtos.doctor.BulkAvailabilityResultDto;
 import org.bydefault.smartclinic.dtos.doctor.DoctorApplicationDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorDashboardDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorLocationDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorSummaryDto;
 import org.bydefault.smartclinic.dtos.doctor.MedicalReportRequestDto;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
 import org.bydefault.smartclinic.services.ImageService;
 import org.bydefault.smartclinic.services.doctor.DoctorServices;
+import org.bydefault.smartclinic.services.search.SuggestionTrie;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -88,6 +109,18 @@ public class DoctorController {
     }
 
 
+    @Operation(summary = "Doctor update location", description = "Set the address and coordinates of the logged-in doctor's practice.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Location updated successfully",
+                    content = @Content(schema = @Schema(implementation = DoctorDto.class))),
+            @ApiResponse(responseCode = "404", description = "Not Found",
+                    content = @Content(schema = @Schema()))
+    })
+    @PatchMapping("/location/")
+    public ResponseEntity<DoctorDto> updateLocation(@Valid @RequestBody DoctorLocationDto locationDto) {
+        return ResponseEntity.ok(doctorServices.updateLocation(locationDto));
+    }
+
     @Operation(summary = "Doctor add availability", description = "Add availability for a doctor to allow patients to book appointments.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Availability added successfully",
@@ -102,6 +135,18 @@ public class DoctorController {
         return ResponseEntity.ok(doctorServices.addAvailability(availabilityDto));
     }
 
+    @Operation(summary = "Doctor add availability in bulk", description = "Add up to 5000 availability slots in one call. Slots that already exist are skipped and every submitted slot gets a result row.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availabilities processed",
+                    content = @Content(schema = @Schema(implementation = BulkAvailabilityResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized request",
+                    content = @Content(schema = @Schema()))
+    })
+    @PostMapping("/availability/bulk/")
+    public ResponseEntity<BulkAvailabilityResultDto> addAvailabilities(@RequestBody List<AvailabilityDto> availabilityDtos) {
+        return ResponseEntity.ok(doctorServices.addAvailabilities(availabilityDtos));
+    }
+
     @Operation(summary = "Doctor Update availability date", description = "Update availability for a doctor to allow patients to book appointments.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Availability updated successfully",
@@ -154,17 +199,110 @@ public class DoctorController {
         return ResponseEntity.ok(availabilityDtos);
     }
 
+    @Operation(summary = "Doctor add recurring availability", description = "Add a weekly recurring availability rule, e.g. Monday to Friday 09:00-12:00 every 30 minutes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability rule added successfully",
+                    content = @Content(schema = @Schema(implementation = AvailabilityRuleDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid availability rule",
+                    content = @Content(schema = @Schema()))
+    })
+    @PostMapping("/availability/rules/")
+    public ResponseEntity<AvailabilityRuleDto> addAvailabilityRule(@Valid @RequestBody AvailabilityRuleDto availabilityRuleDto) {
+        return ResponseEntity.ok(doctorServices.addAvailabilityRule(availabilityRuleDto));
+    }
+
+    @Operation(summary = "Doctor recurring availability", description = "Retrieve the recurring availability rules of the logged-in doctor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability rules found",
+                    content = @Content(schema = @Schema(implementation = AvailabilityRuleDto.class))),
+            @ApiResponse(responseCode = "404", description = "Not Found",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/availability/rules/")
+    public ResponseEntity<List<AvailabilityRuleDto>> getAvailabilityRules() {
+        return ResponseEntity.ok(doctorServices.getAvailabilityRules());
+    }
+
+    @Operation(summary = "Doctor delete recurring availability", description = "Delete a recurring availability rule of the logged-in doctor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability rule deleted successfully",
+                    content = @Content(schema = @Schema(implementation = String.class))),
+            @ApiResponse(responseCode = "404", description = "Availability rule not found",
+                    content = @Content(schema = @Schema()))
+    })
+    @DeleteMapping("/availability/rules/{ruleId}/")
+    public ResponseEntity<String> deleteAvailabilityRule(@PathVariable Long ruleId) {
+        return ResponseEntity.ok(doctorServices.deleteAvailabilityRule(ruleId));
+    }
+
+    @Operation(summary = "Doctor exclude a day or slot from recurring availability", description = "Remove a whole day, or a single slot when a start time is given, from a recurring availability rule.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exclusion added successfully",
+                    content = @Content(schema = @Schema(implementation = AvailabilityRuleDto.class))),
+            @ApiResponse(responseCode = "404", description = "Availability rule not found",
+                    content = @Content(schema = @Schema()))
+    })
+    @PostMapping("/availability/rules/{ruleId}/exclusions/")
+    public ResponseEntity<AvailabilityRuleDto> addAvailabilityRuleExclusion(@PathVariable Long ruleId,
+                                                                            @Valid @RequestBody AvailabilityRuleExclusionDto exclusionDto) {
+        return ResponseEntity.ok(doctorServices.addAvailabilityRuleExclusion(ruleId, exclusionDto));
+    }
+
+    @Operation(summary = "Get a doctor recurring slots", description = "Expand the recurring availability rules of a doctor into slots for a number of days starting at a date.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Slots found",
+                    content = @Content(schema = @Schema(implementation = LocalDateTime.class))),
+            @ApiResponse(responseCode = "404", description = "Doctor not found",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/availability/doctor/{doctorId}/recurring/")
+    public ResponseEntity<List<LocalDateTime>> getRecurringSlots(@PathVariable Long doctorId,
+                                                                 @RequestParam(required = false) String from,
+                                                                 @RequestParam(defaultValue = "7") @Min(1) @Max(31) int days) {
+        LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+        return ResponseEntity.ok(doctorServices.getRecurringSlots(doctorId, fromDate, days));
+    }
+
+    @Operation(summary = "Get a doctor free/busy calendar", description = "Retrieve the free and busy slots of a doctor for a number of days starting at a date.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calendar found",
+                    content = @Content(schema = @Schema(implementation = CalendarDayDto.class))),
+            @ApiResponse(responseCode = "404", description = "Doctor not found",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/availability/doctor/{doctorId}/calendar/")
+    public ResponseEntity<List<CalendarDayDto>> getDoctorCalendar(@PathVariable Long doctorId,
+                                                                  @RequestParam(required = false) String from,
+                                                                  @RequestParam(defaultValue = "7") @Min(1) @Max(31) int days) {
+        LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+        return ResponseEntity.ok(doctorServices.getDoctorCalendar(doctorId, fromDate, days));
+    }
+
+    @Operation(summary = "Get a doctor earliest free slot", description = "Retrieve the earliest free slot of a doctor at or after a given time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Free slot found",
+                    content = @Content(schema = @Schema(implementation = AvailableSlotDto.class))),
+            @ApiResponse(responseCode = "404", description = "No free slot found",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/availability/doctor/{doctorId}/earliest/")
+    public ResponseEntity<AvailableSlotDto> getEarliestFreeSlot(@PathVariable Long doctorId,
+                                                                @RequestParam(required = false) String from) {
+        LocalDateTime fromTime = from != null ? LocalDateTime.parse(from) : LocalDateTime.now();
+        return ResponseEntity.ok(doctorServices.getEarliestFreeSlot(doctorId, fromTime));
+    }
+
     @Operation(summary = "Filter doctors by availability day and time", description = "Retrieve all doctors available on a specific day and time.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Doctors found",
-                    content = @Content(schema = @Schema(implementation = DoctorDto.class))),
+                    content = @Content(schema = @Schema(implementation = DoctorListItemDto.class))),
             @ApiResponse(responseCode = "404", description = "No doctors found",
                     content = @Content(schema = @Schema()))
     })
     @GetMapping("/availability/doctor/")
-    public ResponseEntity<List<DoctorDto>> getAllDoctorsByAvailability(@RequestParam String day, @RequestParam String time) {
+    public ResponseEntity<List<DoctorListItemDto>> getAllDoctorsByAvailability(@RequestParam String day, @RequestParam String time) {
         LocalTime Localtime = LocalTime.parse(time);
-        List<DoctorDto> availabilityDtos = doctorServices.getAllDoctorsByAvailability(day, Localtime);
+        List<DoctorListItemDto> availabilityDtos = doctorServices.getAllDoctorsByAvailability(day, Localtime);
         return ResponseEntity.ok(availabilityDtos);
     }
 
@@ -172,26 +310,89 @@ public class DoctorController {
     @Operation(summary = "Filter doctors by specialty", description = "Retrieve all doctors by their specialty.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of specialties",
-                    content = @Content(schema = @Schema(implementation = DoctorDto.class))),
+                    content = @Content(schema = @Schema(implementation = DoctorListItemDto.class))),
             @ApiResponse(responseCode = "404", description = "No specialties found",
                     content = @Content(schema = @Schema()))
     })
     @GetMapping("/specialty/doctors/")
-    public ResponseEntity<List<DoctorDto>> getAllDoctorsBySpecialty(@RequestParam String specialtyName) {
-        List<DoctorDto> doctors = doctorServices.getAllDoctorsBySpecialty(specialtyName);
+    public ResponseEntity<List<DoctorListItemDto>> getAllDoctorsBySpecialty(@RequestParam String specialtyName) {
+        List<DoctorListItemDto> doctors = doctorServices.getAllDoctorsBySpecialty(specialtyName);
         return ResponseEntity.ok(doctors);
     }
 
+    @Operation(summary = "Earliest free slots by specialty", description = "Retrieve the earliest bookable slots across all accepted doctors of a specialty, optionally filtered by location, within a time window.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Free slots found",
+                    content = @Content(schema = @Schema(implementation = AvailableSlotDto.class))),
+            @ApiResponse(responseCode = "404", description = "Specialty not found or no free slot",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/specialty/earliest/")
+    public ResponseEntity<List<AvailableSlotDto>> getEarliestSlotsBySpecialty(@RequestParam String specialtyName,
+                                                                              @RequestParam(required = false) String location,
+                                                                              @RequestParam(required = false) String from,
+                                                                              @RequestParam(required = false) String to,
+                                                                              @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        LocalDateTime fromTime = from != null ? LocalDateTime.parse(from) : LocalDateTime.now();
+        LocalDateTime toTime = to != null ? LocalDateTime.parse(to) : fromTime.plusDays(14);
+        return ResponseEntity.ok(doctorServices.getEarliestSlotsBySpecialty(specialtyName, location, fromTime, toTime, limit));
+    }
+
+    @Operation(summary = "Search doctors", description = "Full-text search over accepted doctors' names, specialties, locations and qualifications, with prefix matching and typo tolerance, ranked by relevance, earliest free slot and booking load.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search results",
+                    content = @Content(schema = @Schema(implementation = DoctorSummaryDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping({"/search", "/search/"})
+    public ResponseEntity<Page<DoctorSummaryDto>> searchDoctors(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "0") @Min(0) int page,
+                                                         @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ResponseEntity.ok(doctorServices.searchDoctors(q, page, size));
+    }
+
+    @Operation(summary = "Suggest specialties and doctors", description = "Type-ahead suggestions of specialty and accepted doctor names starting with the given prefix, specialties first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions, possibly empty",
+                    content = @Content(schema = @Schema(implementation = SuggestionDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/suggest/")
+    public ResponseEntity<List<SuggestionDto>> suggest(@RequestParam String q,
+                                                       @RequestParam(defaultValue = "10") @Min(1) @Max(SuggestionTrie.MAX_SUGGESTIONS) int limit) {
+        return ResponseEntity.ok(doctorServices.suggest(q, limit));
+    }
+
+    @Operation(summary = "Nearest doctors", description = "Retrieve accepted doctors within a radius of a point, ranked by distance, earliest free slot and booking load, optionally filtered by specialty and by having a free slot on a date.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Doctors found",
+                    content = @Content(schema = @Schema(implementation = NearbyDoctorDto.class))),
+            @ApiResponse(responseCode = "404", description = "No doctors found",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/nearby/doctors/")
+    public ResponseEntity<List<NearbyDoctorDto>> findNearbyDoctors(@RequestParam @DecimalMin("-90.0") @DecimalMax("90.0") double lat,
+                                                                   @RequestParam @DecimalMin("-180.0") @DecimalMax("180.0") double lng,
+                                                                   @RequestParam(defaultValue = "10") @DecimalMin("0.1") @DecimalMax("500.0") double radiusKm,
+                                                                   @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit,
+                                                                   @RequestParam(required = false) String specialtyName,
+                                                                   @RequestParam(required = false) String date) {
+        LocalDate availableOn = date != null ? LocalDate.parse(date) : null;
+        return ResponseEntity.ok(doctorServices.findNearbyDoctors(lat, lng, radiusKm, limit, specialtyName, availableOn));
+    }
+
     @Operation(summary = "Filter doctors by location", description = "Retrieve all doctors by their location.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of doctors by location",
-                    content = @Content(schema = @Schema(implementation = DoctorDto.class))),
+                    content = @Content(schema = @Schema(implementation = DoctorListItemDto.class))),
             @ApiResponse(responseCode = "404", description = "No doctors found for that location",
                     content = @Content(schema = @Schema()))
     })
     @GetMapping("/location/doctors/")
-    public ResponseEntity<List<DoctorDto>> getAllDoctorsByLocation(@RequestParam String location) {
-        List<DoctorDto> doctors = doctorServices.getAllDoctorsByLocation(location);
+    public ResponseEntity<List<DoctorListItemDto>> getAllDoctorsByLocation(@RequestParam String location) {
+        List<DoctorListItemDto> doctors = doctorServices.getAllDoctorsByLocation(location);
         return ResponseEntity.ok(doctors);
     }
 
@@ -199,17 +400,58 @@ public class DoctorController {
     @Operation(summary = "Filter doctors by availability date", description = "Retrieve all doctors available on a specific date.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of specialties",
-                    content = @Content(schema = @Schema(implementation = DoctorDto.class))),
+                    content = @Content(schema = @Schema(implementation = DoctorListItemDto.class))),
             @ApiResponse(responseCode = "404", description = "No specialties found",
                     content = @Content(schema = @Schema()))
     })
     @GetMapping("/date/doctors/")
-    public ResponseEntity<List<DoctorDto>> getAllDoctorsByDate(@RequestParam String date) {
+    public ResponseEntity<List<DoctorListItemDto>> getAllDoctorsByDate(@RequestParam String date) {
         LocalDate localDate = LocalDate.parse(date);
-        List<DoctorDto> doctors = doctorServices.getAllDoctorsByDate(localDate);
+        List<DoctorListItemDto> doctors = doctorServices.getAllDoctorsByDate(localDate);
         return ResponseEntity.ok(doctors);
     }
 
+    @Operation(summary = "Filter doctors by availability date range", description = "Retrieve a page of accepted doctors with at least one open slot between two dates (inclusive).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of doctors",
+                    content = @Content(schema = @Schema(implementation = DoctorListItemDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/date-range/doctors/")
+    public ResponseEntity<Slice<DoctorListItemDto>> getAllDoctorsByDateRange(@RequestParam String from,
+                                                                     @RequestParam String to,
+                                                                     @RequestParam(defaultValue = "0") @Min(0) int page,
+                                                                     @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        Slice<DoctorListItemDto> doctors = doctorServices.getAllDoctorsByDateRange(LocalDate.parse(from), LocalDate.parse(to), page, size);
+        return ResponseEntity.ok(doctors);
+    }
+
+    @Operation(summary = "Filter doctors", description = "Retrieve doctors matching any combination of specialty, location, accepted status and a free slot on a date within a time window, as lightweight rows paged by cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of doctors",
+                    content = @Content(schema = @Schema(implementation = DoctorListItemDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or cursor",
+                    content = @Content(schema = @Schema())),
+            @ApiResponse(responseCode = "404", description = "Specialty not found",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/filter/doctors/")
+    public ResponseEntity<KeysetPageDto<DoctorListItemDto>> filterDoctors(@RequestParam(required = false) String specialtyName,
+                                                                          @RequestParam(required = false) String location,
+                                                                          @RequestParam(defaultValue = "true") Boolean accepted,
+                                                                          @RequestParam(required = false) String date,
+                                                                          @RequestParam(required = false) String from,
+                                                                          @RequestParam(required = false) String to,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ResponseEntity.ok(doctorServices.filterDoctors(specialtyName, location, accepted,
+                date != null ? LocalDate.parse(date) : null,
+                from != null ? LocalTime.parse(from) : null,
+                to != null ? LocalTime.parse(to) : null,
+                cursor, size));
+    }
+
     // Additional endpoints for medical reports and appointments can be added here
 
     @Operation(summary = "Create medical report", description = "Create a medical report for a specific user.")
@@ -255,6 +497,18 @@ public class DoctorController {
     }
 
 
+    @Operation(summary = "Cancel a day of appointments", description = "Cancel all pending and accepted appointments of the logged-in doctor on a date, e.g. for a sick day.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Appointments canceled successfully",
+                    content = @Content(schema = @Schema(implementation = String.class))),
+            @ApiResponse(responseCode = "404", description = "Not Found",
+                    content = @Content(schema = @Schema()))
+    })
+    @PostMapping("/appointments/cancel-day/")
+    public ResponseEntity<String> cancelAppointmentsOn(@RequestParam String date) {
+        return ResponseEntity.ok(doctorServices.cancelAppointmentsOn(LocalDate.parse(date)));
+    }
+
     @Operation(summary = "View all accepted appointment", description = "Retrieve all accepted appointments for a doctor.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of accepted appointments",
@@ -281,6 +535,40 @@ public class DoctorController {
         return ResponseEntity.ok(appointments);
     }
 
+    @Operation(summary = "Doctor dashboard", description = "Retrieve the logged-in doctor's appointment and patient counters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of the dashboard",
+                    content = @Content(schema = @Schema(implementation = DoctorDashboardDto.class))),
+            @ApiResponse(responseCode = "404", description = "User is not a doctor",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/dashboard/")
+    public ResponseEntity<DoctorDashboardDto> getDashboard() {
+        return ResponseEntity.ok(doctorServices.getDashboard());
+    }
+
+    @Operation(summary = "Appointment inbox", description = "Retrieve the logged-in doctor's appointments ordered by date, optionally filtered by status, an inclusive date range and patient, paged by cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of appointments",
+                    content = @Content(schema = @Schema(implementation = AppointmentInboxItemDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or cursor",
+                    content = @Content(schema = @Schema())),
+            @ApiResponse(responseCode = "404", description = "User is not a doctor",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping("/appointments/inbox/")
+    public ResponseEntity<KeysetPageDto<AppointmentInboxItemDto>> appointmentInbox(@RequestParam(required = false) Set<AppointmentStatus> status,
+                                                                                   @RequestParam(required = false) String from,
+                                                                                   @RequestParam(required = false) String to,
+                                                                                   @RequestParam(required = false) Long patientId,
+                                                                                   @RequestParam(required = false) String cursor,
+                                                                                   @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ResponseEntity.ok(doctorServices.appointmentInbox(status,
+                from != null ? LocalDate.parse(from) : null,
+                to != null ? LocalDate.parse(to) : null,
+                patientId, cursor, size));
+    }
+
     @Operation(summary = "Reschedule appointment", description = "Reschedule an existing appointment to a new date and time.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Appointment rescheduled successfully",
@@ -1,6 +1,7 @@
 package org.bydefault.smartclinic.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,9 +11,15 @@ import lombok.RequiredArgsConstructor;
 import org.bydefault.smartclinic.dtos.common.AppointmentDto;
 import org.bydefault.smartclinic.dtos.common.DoctorDto;
 import org.bydefault.smartclinic.dtos.common.MedicalReportDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.services.catalog.DoctorDirectory;
 import org.bydefault.smartclinic.services.users.UserServices;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -49,11 +56,20 @@ public class UserController {
     @Operation(summary = "All doctors", description = "Retrieve all doctors")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of all doctors retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = DoctorDto.class))),
-            @ApiResponse(responseCode = "404", description = "No doctors found", content = @Content(schema = @Schema()))})
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DoctorListItemDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Directory unchanged since the given ETag", content = @Content(schema = @Schema()))})
     @GetMapping("/doctors/")
-    public ResponseEntity<List<DoctorDto>> allDoctors() {
-        return ResponseEntity.ok(userServices.allDoctor());
+    public ResponseEntity<byte[]> allDoctors(WebRequest request) {
+        DoctorDirectory.Snapshot directory = userServices.allDoctor();
+        // Clients revalidate with If-None-Match, an unchanged directory costs a string comparison
+        if (request.checkNotModified(directory.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(directory.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(directory.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(directory.json());
     }
 
     @Operation(summary = "All past appointments", description = "Retrieve all past appointments of a patient")
@@ -112,7 +128,7 @@ public class UserController {
     @Operation(summary = "Filter doctors by specialty", description = "Retrieve all doctors by specialty")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of doctors by specialty retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = DoctorDto.class))),
+                    content = @Content(schema = @Schema(implementation = DoctorListItemDto.class))),
             @ApiResponse(responseCode = "404", description = "No doctors found for the specified specialty",
                     content = @Content(schema = @Schema()))})
     @GetMapping("/doctors/specialty/{specialtyName}/")
@@ -0,0 +1,31 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Appointment Import Result", description = "Outcome of an appointment import")
+public class AppointmentImportResultDto {
+    private int imported;
+
+    private int rejected;
+
+    // Only the first rejected records are listed
+    private List<RejectedRecord> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRecord {
+        // CSV line number, or position of the object in a JSON array
+        private long line;
+
+        private String message;
+    }
+}
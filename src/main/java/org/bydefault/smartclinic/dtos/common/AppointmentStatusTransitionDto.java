@@ -0,0 +1,22 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Schema(name = "Appointment Status Transition", description = "Move a set of appointments to a new status, selected either by ids or by doctor and date")
+public class AppointmentStatusTransitionDto {
+    private List<Long> appointmentIds;
+
+    private Long doctorId;
+
+    private LocalDate date;
+
+    @NotNull
+    private AppointmentStatus status;
+}
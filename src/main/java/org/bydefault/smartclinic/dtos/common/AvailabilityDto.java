@@ -18,4 +18,7 @@ public class AvailabilityDto {
     private Date date;
 
     private boolean isAvailable;
+
+    // Version the client last read, an update is rejected when the slot changed since
+    private Long version;
 }
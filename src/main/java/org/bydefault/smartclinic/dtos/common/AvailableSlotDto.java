@@ -0,0 +1,22 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Available Slot", description = "A bookable slot of a doctor")
+public class AvailableSlotDto {
+    private Long doctorId;
+
+    private String doctorName;
+
+    private String location;
+
+    private LocalDateTime start;
+}
@@ -0,0 +1,24 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Cache Stats", description = "Size and hit/miss counters of an in-process cache")
+public class CacheStatsDto {
+    private String name;
+
+    private int size;
+
+    private long hits;
+
+    private long misses;
+
+    private double hitRatio;
+
+    private long invalidations;
+}
@@ -0,0 +1,24 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Calendar Day", description = "Free and busy slots of a doctor on one day")
+public class CalendarDayDto {
+    private LocalDate date;
+
+    private int slotMinutes;
+
+    private List<LocalTime> freeSlots;
+
+    private List<LocalTime> busySlots;
+}
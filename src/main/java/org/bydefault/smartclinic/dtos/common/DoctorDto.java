@@ -2,7 +2,6 @@ package org.bydefault.smartclinic.dtos.common;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
-import org.bydefault.smartclinic.entities.Specialty;
 
 import java.util.Set;
 
@@ -13,6 +12,10 @@ public class DoctorDto {
 
     private String location;
 
+    private Double latitude;
+
+    private Double longitude;
+
     private String highersQualifications;
 
     private String idPhoto;
@@ -23,7 +26,7 @@ public class DoctorDto {
 
     private boolean accepted;
 
-    private Specialty specialty;
+    private SpecialtyDto specialty;
 
     private Set<AvailabilityDto> availabilities;
 
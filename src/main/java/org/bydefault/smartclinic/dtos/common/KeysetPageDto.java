@@ -0,0 +1,21 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Keyset Page", description = "A page of results, the next page is requested with the returned cursor")
+public class KeysetPageDto<T> {
+    private List<T> content;
+
+    // Opaque cursor to pass back to fetch the next page, null on the last page
+    private String nextCursor;
+
+    private boolean hasNext;
+}
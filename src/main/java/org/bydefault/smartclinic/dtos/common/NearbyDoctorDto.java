@@ -0,0 +1,17 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bydefault.smartclinic.dtos.doctor.DoctorSummaryDto;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Nearby Doctor", description = "A doctor and its distance from the searched point")
+public class NearbyDoctorDto {
+    private DoctorSummaryDto doctor;
+
+    private double distanceKm;
+}
@@ -0,0 +1,27 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Password Hashing Stats", description = "Load of the password hashing executor")
+public class PasswordHashingStatsDto {
+    private int threads;
+
+    private int active;
+
+    private int queued;
+
+    private int queueCapacity;
+
+    private long completed;
+
+    // Hashes turned away because the queue was full or the wait timed out
+    private long rejected;
+
+    private double averageMillis;
+}
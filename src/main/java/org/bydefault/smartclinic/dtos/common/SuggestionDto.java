@@ -0,0 +1,23 @@
+package org.bydefault.smartclinic.dtos.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Suggestion", description = "A type-ahead suggestion, either a specialty or a doctor")
+public class SuggestionDto {
+    private Type type;
+
+    private Long id;
+
+    private String label;
+
+    public enum Type {
+        SPECIALTY,
+        DOCTOR
+    }
+}
@@ -0,0 +1,29 @@
+package org.bydefault.smartclinic.dtos.doctor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Appointment Inbox Item", description = "One appointment of a doctor's inbox with its patient")
+public class AppointmentInboxItemDto {
+    private Long id;
+
+    private LocalDateTime appointmentDate;
+
+    private AppointmentStatus status;
+
+    private String description;
+
+    private Long patientId;
+
+    private String patientFirstName;
+
+    private String patientLastName;
+}
@@ -0,0 +1,38 @@
+package org.bydefault.smartclinic.dtos.doctor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.bydefault.smartclinic.entities.Day;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Schema(name = "Availability Rule", description = "Recurring weekly availability of a doctor")
+public class AvailabilityRuleDto {
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id;
+
+    @NotEmpty
+    private Set<Day> days;
+
+    @NotNull
+    private LocalTime startTime;
+
+    @NotNull
+    private LocalTime endTime;
+
+    private int slotMinutes = 30;
+
+    private LocalDate validFrom;
+
+    private LocalDate validUntil;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<AvailabilityRuleExclusionDto> exclusions;
+}
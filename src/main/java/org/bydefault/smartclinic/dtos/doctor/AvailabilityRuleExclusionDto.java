@@ -0,0 +1,20 @@
+package org.bydefault.smartclinic.dtos.doctor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@Schema(name = "Availability Rule Exclusion", description = "A day off or a single slot removed from a recurring availability rule")
+public class AvailabilityRuleExclusionDto {
+    @NotNull
+    private LocalDate date;
+
+    // Leave empty to exclude the whole day
+    private LocalTime startTime;
+
+    private String reason;
+}
@@ -0,0 +1,42 @@
+package org.bydefault.smartclinic.dtos.doctor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Bulk Availability Result", description = "Outcome of a bulk availability upload, one row per submitted slot")
+public class BulkAvailabilityResultDto {
+    private int created;
+
+    private int duplicates;
+
+    private int invalid;
+
+    private List<Row> rows;
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        // Position of the slot in the submitted list
+        private int index;
+
+        private Long id;
+
+        private Status status;
+
+        private String message;
+    }
+}
@@ -1,5 +1,7 @@
 package org.bydefault.smartclinic.dtos.doctor;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -8,6 +10,14 @@ public class DoctorApplicationDto {
     @NotBlank(message = "Name is required")
     private String location;
 
+    @DecimalMin(value = "-90.0")
+    @DecimalMax(value = "90.0")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0")
+    @DecimalMax(value = "180.0")
+    private Double longitude;
+
     @NotBlank(message = "Give your highest qualification")
     private String highersQualifications;
 
@@ -0,0 +1,30 @@
+package org.bydefault.smartclinic.dtos.doctor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Doctor Dashboard", description = "Appointment and patient counters of a doctor")
+public class DoctorDashboardDto {
+    private Long doctorId;
+
+    // All appointments ever booked with the doctor
+    private int totalAppointments;
+
+    // Pending and accepted appointments of today
+    private int todayAppointments;
+
+    // Pending appointments from today on
+    private int pendingAppointments;
+
+    // Accepted appointments from today on
+    private int acceptedAppointments;
+
+    private int canceledAppointments;
+
+    private int totalPatients;
+}
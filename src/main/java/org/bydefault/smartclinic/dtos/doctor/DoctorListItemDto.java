@@ -0,0 +1,30 @@
+package org.bydefault.smartclinic.dtos.doctor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Doctor List Item", description = "Lightweight doctor row returned by list and filter endpoints")
+public class DoctorListItemDto {
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private Long specialtyId;
+
+    private String specialtyName;
+
+    private String location;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private boolean accepted;
+}
@@ -0,0 +1,34 @@
+package org.bydefault.smartclinic.dtos.doctor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Doctor Summary", description = "Doctor card returned by search results, a list row plus qualifications and photo")
+public class DoctorSummaryDto {
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private Long specialtyId;
+
+    private String specialtyName;
+
+    private String location;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private boolean accepted;
+
+    private String highersQualifications;
+
+    private String imageUrl;
+}
@@ -10,6 +10,10 @@ import java.time.LocalDateTime;
 import java.util.Date;
 
 @Entity
+@Table(indexes = {
+        // Serves a doctor's inbox: equality on doctor and status, range and order on the date
+        @Index(name = "idx_appointment_doctor_status_date", columnList = "doctor_id, status, appointment_date")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -40,4 +44,22 @@ public class Appointment  extends BaseEntity{
     @Enumerated(EnumType.STRING)
     private AppointmentStatus status;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    /*
+     * Unique (doctor, slot) claim held while the appointment is active, null once released
+     */
+    @Column(name = "slot_key", unique = true, length = 64)
+    private String slotKey;
+
+    /**
+     * Build the slot key a doctor's appointment at the given time claims, one key per calendar cell so two
+     * appointments can never share a cell
+     */
+    public static String slotKey(Long doctorId, LocalDateTime appointmentDate) {
+        return doctorId + "@" + CalendarCell.startOf(appointmentDate);
+    }
+
 }
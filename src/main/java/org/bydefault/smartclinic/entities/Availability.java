@@ -6,9 +6,17 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_availability_date_available_doctor", columnList = "date, is_available, doctor_id")
+}, uniqueConstraints = {
+        // A NULL date would escape a (doctor, date, time) key, so the identity is kept in its own column
+        @UniqueConstraint(name = "uk_availability_doctor_slot", columnNames = {"doctor_id", "slot_key"})
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -27,8 +35,36 @@ public class Availability {
 
     private boolean isAvailable;
 
+    @Column(name = "slot_key", length = 300)
+    private String slotKey;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "doctor_id")
     private Doctor doctor;
 
+    @PrePersist
+    @PreUpdate
+    void updateSlotKey() {
+        slotKey = slotKeyOf(day, time, date);
+    }
+
+    /**
+     * Identity of a slot: dated slots by date and time, weekly ones by day and time
+     */
+    public static String slotKeyOf(Day day, String time, Date date) {
+        // java.sql.Date/Timestamp do not support toInstant(), so go through the epoch millis
+        String when = date != null ? new java.sql.Date(date.getTime()).toLocalDate().toString() : String.valueOf(day);
+        String at = time == null ? "" : time.trim();
+        try {
+            at = LocalTime.parse(at).toString();
+        } catch (DateTimeParseException e) {
+            // Kept as given, it still identifies the slot
+        }
+        return when + "@" + at;
+    }
+
 }
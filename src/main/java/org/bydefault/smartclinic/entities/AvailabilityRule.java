@@ -0,0 +1,86 @@
+package org.bydefault.smartclinic.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Recurring weekly availability of a doctor, e.g. "Mon–Fri 09:00–12:00 every 30 min until further notice".
+ * Concrete slots are never stored, they are expanded on demand for the requested window.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AvailabilityRule extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    // One bit per Day, bit i set for Day.values()[i]
+    @Column(name = "days_mask", nullable = false)
+    private int daysMask;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    @Column(nullable = false)
+    private int slotMinutes;
+
+    @Column(nullable = false)
+    private LocalDate validFrom;
+
+    // null means until further notice
+    private LocalDate validUntil;
+
+    @OneToMany(mappedBy = "rule", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<AvailabilityRuleExclusion> exclusions = new HashSet<>();
+
+    /**
+     * Get the days of the week the rule applies to
+     */
+    public Set<Day> getDays() {
+        Set<Day> days = EnumSet.noneOf(Day.class);
+        for (Day day : Day.values()) {
+            if ((daysMask & (1 << day.ordinal())) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Set the days of the week the rule applies to
+     */
+    public void setDays(Set<Day> days) {
+        int mask = 0;
+        for (Day day : days) {
+            mask |= 1 << day.ordinal();
+        }
+        this.daysMask = mask;
+    }
+
+    /**
+     * Add an exclusion to this rule
+     */
+    public void addExclusion(AvailabilityRuleExclusion exclusion) {
+        exclusions.add(exclusion);
+        exclusion.setRule(this);
+    }
+}
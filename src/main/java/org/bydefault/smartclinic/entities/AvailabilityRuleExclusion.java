@@ -0,0 +1,36 @@
+package org.bydefault.smartclinic.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An exception to a recurring availability rule: a whole day off, or a single slot removed
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AvailabilityRuleExclusion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "rule_id", nullable = false)
+    private AvailabilityRule rule;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    // null excludes the whole day
+    private LocalTime startTime;
+
+    private String reason;
+}
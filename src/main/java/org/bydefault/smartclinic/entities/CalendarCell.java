@@ -0,0 +1,23 @@
+package org.bydefault.smartclinic.entities;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The fixed-length cells a doctor's day is booked in. At most one active appointment occupies a cell.
+ */
+public final class CalendarCell {
+
+    public static final int MINUTES = 30;
+
+    private CalendarCell() {
+    }
+
+    /**
+     * Start of the cell the given time falls into
+     */
+    public static LocalDateTime startOf(LocalDateTime time) {
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        return minute.minusMinutes(minute.getMinute() % MINUTES);
+    }
+}
@@ -2,6 +2,7 @@ package org.bydefault.smartclinic.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -11,6 +12,9 @@ import java.util.HashSet;
 import java.util.stream.Collectors;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_doctor_accepted_specialty", columnList = "accepted, specialty_id, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -23,6 +27,11 @@ public class Doctor {
 
     private String location;
 
+    // WGS84 coordinates of the practice, used by the nearby-doctor search
+    private Double latitude;
+
+    private Double longitude;
+
     private String highersQualifications;
 
     private String idPhoto;
@@ -42,10 +51,16 @@ public class Doctor {
 
     private LocalDateTime reviewedAt;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne(optional = false, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinColumn(name = "specialty_id")
     private Specialty specialty;
 
+    // Collections carry their own versions, a new slot or appointment does not conflict with profile updates
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Availability> availabilities = new HashSet<>();
 
@@ -54,9 +69,11 @@ public class Doctor {
     private User user;
 
     // Updated patient relationship - better to use Set for unique patients
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.PERSIST)
     private Set<User> patients = new HashSet<>();
 
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Appointment> appointments = new HashSet<>();
 
@@ -0,0 +1,40 @@
+package org.bydefault.smartclinic.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked token, or with no token id every token issued to the user before {@code notBefore}.
+ * Rows are only needed until the tokens they cover have expired.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The jti claim of the revoked token
+    @Column(unique = true, length = 36)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private LocalDateTime notBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,7 @@
+package org.bydefault.smartclinic.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String s) {
+        super(s);
+    }
+}
@@ -56,14 +56,16 @@ public class JwtFilters extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            if (jwtServices.validateJwtToken(token)) {
-                var role = jwtServices.getUserRoleFromJwtToken(token);
-                var userId = jwtServices.getUserIdFromJwtToken(token);
+            // Hot tokens come from the cache, others are verified and read in one parse
+            var principal = jwtServices.authenticate(token).orElse(null);
+            if (principal != null) {
+                var userId = principal.userId();
 
+                // The user id stays the principal, services read it back as a Long
                 var authentication = new UsernamePasswordAuthenticationToken(
                         userId,
                         null,
-                        List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                        List.of(new SimpleGrantedAuthority("ROLE_" + principal.role()))
                 );
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,23 @@
+package org.bydefault.smartclinic.repository;
+
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Criteria of a doctor's appointment inbox, the date range is [from, to) and every null criterion is ignored
+ */
+public record AppointmentInboxFilter(
+        Long doctorId,
+        Collection<AppointmentStatus> statuses,
+        LocalDateTime from,
+        LocalDateTime to,
+        Long patientId
+) {
+
+    public AppointmentInboxFilter {
+        statuses = statuses == null ? Set.of() : statuses;
+    }
+}
@@ -0,0 +1,14 @@
+package org.bydefault.smartclinic.repository;
+
+import org.bydefault.smartclinic.dtos.doctor.AppointmentInboxItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AppointmentInboxRepository {
+
+    /**
+     * Appointments matching the filter after the (appointment date, id) position, in that order, at most {@code limit}
+     */
+    List<AppointmentInboxItemDto> findInbox(AppointmentInboxFilter filter, LocalDateTime afterDate, Long afterId, int limit);
+}
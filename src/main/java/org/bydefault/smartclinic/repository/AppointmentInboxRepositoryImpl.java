@@ -0,0 +1,68 @@
+package org.bydefault.smartclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.bydefault.smartclinic.dtos.doctor.AppointmentInboxItemDto;
+import org.bydefault.smartclinic.entities.Appointment;
+import org.bydefault.smartclinic.entities.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a doctor's inbox as a single Criteria query.
+ * <p>
+ * The predicates line up with the (doctor_id, status, appointment_date) index and paging continues after the
+ * last (appointment date, id) seen, so a page costs the same whatever the size of the doctor's history.
+ */
+public class AppointmentInboxRepositoryImpl implements AppointmentInboxRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentInboxItemDto> findInbox(AppointmentInboxFilter filter, LocalDateTime afterDate, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentInboxItemDto> query = cb.createQuery(AppointmentInboxItemDto.class);
+        Root<Appointment> appointment = query.from(Appointment.class);
+        Join<Appointment, User> patient = appointment.join("patient", JoinType.LEFT);
+        Path<LocalDateTime> appointmentDate = appointment.get("appointmentDate");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(appointment.get("doctor").get("id"), filter.doctorId()));
+        if (!filter.statuses().isEmpty()) {
+            predicates.add(appointment.get("status").in(filter.statuses()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(appointmentDate, filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(appointmentDate, filter.to()));
+        }
+        if (filter.patientId() != null) {
+            predicates.add(cb.equal(patient.get("id"), filter.patientId()));
+        }
+        if (afterDate != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(appointmentDate, afterDate),
+                    cb.and(cb.equal(appointmentDate, afterDate), cb.greaterThan(appointment.get("id"), afterId))));
+        }
+
+        query.select(cb.construct(AppointmentInboxItemDto.class,
+                        appointment.get("id"),
+                        appointmentDate,
+                        appointment.get("status"),
+                        appointment.get("description"),
+                        patient.get("id"),
+                        patient.get("firstName"),
+                        patient.get("lastName")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(appointmentDate), cb.asc(appointment.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
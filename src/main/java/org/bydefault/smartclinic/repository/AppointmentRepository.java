@@ -3,14 +3,129 @@ package org.bydefault.smartclinic.repository;
 import org.bydefault.smartclinic.entities.Appointment;
 import org.bydefault.smartclinic.entities.AppointmentStatus;
 import org.bydefault.smartclinic.entities.User;
+import org.bydefault.smartclinic.services.appointment.AppointmentCommandView;
+import org.bydefault.smartclinic.services.appointment.AppointmentSlot;
+import org.bydefault.smartclinic.services.stats.DoctorStatusCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
-public interface AppointmentRepository  extends JpaRepository<Appointment, Long> {
-    List<Appointment> findByStatus(AppointmentStatus appointmentStatus);
+public interface AppointmentRepository  extends JpaRepository<Appointment, Long>, AppointmentInboxRepository {
+    List<Appointment> findByDoctorIdAndStatusOrderByAppointmentDateAsc(Long doctorId, AppointmentStatus appointmentStatus);
+
+    // One pass over the appointments yields every dashboard counter, upcoming and today are split by date
+    @Query("SELECT new org.bydefault.smartclinic.services.stats.DoctorStatusCount(a.doctor.id, a.status, COUNT(a), " +
+            "SUM(CASE WHEN a.appointmentDate >= :today THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN a.appointmentDate >= :today AND a.appointmentDate < :tomorrow THEN 1L ELSE 0L END)) " +
+            "FROM Appointment a WHERE a.doctor IS NOT NULL AND a.status IS NOT NULL GROUP BY a.doctor.id, a.status")
+    List<DoctorStatusCount> countByDoctorAndStatus(@Param("today") LocalDateTime today,
+                                                   @Param("tomorrow") LocalDateTime tomorrow);
 
     List<Appointment> findByPatientAndStatus(User user, AppointmentStatus appointmentStatus);
 
     List<Appointment> findAllByPatient(User patient);
+
+    boolean existsBySlotKey(String slotKey);
+
+    boolean existsBySlotKeyAndIdNot(String slotKey, Long id);
+
+    @Query("SELECT new org.bydefault.smartclinic.services.appointment.AppointmentSlot(a.id, a.doctor.id, a.appointmentDate) " +
+            "FROM Appointment a WHERE a.slotKey IS NULL AND a.appointmentDate >= :from AND a.status IN :statuses ORDER BY a.id")
+    List<AppointmentSlot> findUnclaimedSlots(@Param("from") LocalDateTime from, @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    @Query("SELECT new org.bydefault.smartclinic.services.appointment.AppointmentSlot(a.id, a.doctor.id, a.appointmentDate) " +
+            "FROM Appointment a WHERE a.appointmentDate >= :from AND a.status IN :statuses")
+    List<AppointmentSlot> findActiveSlots(@Param("from") LocalDateTime from, @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    // Active appointments a user takes part in, as the patient or as the doctor
+    @Query("SELECT new org.bydefault.smartclinic.services.appointment.AppointmentSlot(a.id, d.id, a.appointmentDate) " +
+            "FROM Appointment a JOIN a.doctor d LEFT JOIN a.patient p LEFT JOIN d.user du " +
+            "WHERE (p.id = :userId OR du.id = :userId) AND a.appointmentDate >= :from AND a.status IN :statuses")
+    List<AppointmentSlot> findActiveSlotsOfUser(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                                @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    @Query("SELECT new org.bydefault.smartclinic.services.appointment.AppointmentSlot(a.id, a.doctor.id, a.appointmentDate) " +
+            "FROM Appointment a WHERE a.id IN :ids AND a.status IN :statuses")
+    List<AppointmentSlot> findSlotsByIds(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    @Query("SELECT new org.bydefault.smartclinic.services.appointment.AppointmentSlot(a.id, a.doctor.id, a.appointmentDate) " +
+            "FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDate >= :from AND a.appointmentDate < :to " +
+            "AND a.status IN :statuses")
+    List<AppointmentSlot> findDoctorSlotsBetween(@Param("doctorId") Long doctorId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    @Query("SELECT a.slotKey FROM Appointment a WHERE a.slotKey IN :slotKeys")
+    List<String> findExistingSlotKeys(@Param("slotKeys") Collection<String> slotKeys);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.slotKey = :slotKey WHERE a.id = :id AND a.slotKey IS NULL")
+    int claimSlotKey(@Param("id") Long id, @Param("slotKey") String slotKey);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status, a.version = a.version + 1, a.updatedAt = :now WHERE a.id IN :ids AND a.status IN :fromStatuses")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("fromStatuses") Collection<AppointmentStatus> fromStatuses,
+                     @Param("status") AppointmentStatus status,
+                     @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status, a.slotKey = NULL, a.version = a.version + 1, a.updatedAt = :now " +
+            "WHERE a.id IN :ids AND a.status IN :fromStatuses")
+    int updateStatusAndReleaseSlot(@Param("ids") Collection<Long> ids,
+                                   @Param("fromStatuses") Collection<AppointmentStatus> fromStatuses,
+                                   @Param("status") AppointmentStatus status,
+                                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT new org.bydefault.smartclinic.services.appointment.AppointmentCommandView(" +
+            "a.id, a.status, a.version, a.appointmentDate, p.id, p.firstName, p.lastName, pd.id, d.id, du.id, du.firstName, du.lastName) " +
+            "FROM Appointment a LEFT JOIN a.patient p LEFT JOIN p.doctor pd JOIN a.doctor d JOIN d.user du WHERE a.id = :id")
+    Optional<AppointmentCommandView> findCommandView(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status, a.version = a.version + 1, a.updatedAt = :now " +
+            "WHERE a.id = :id AND a.version = :version AND a.status IN :fromStatuses")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("version") Long version,
+                         @Param("fromStatuses") Collection<AppointmentStatus> fromStatuses,
+                         @Param("status") AppointmentStatus status,
+                         @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status, a.slotKey = NULL, a.version = a.version + 1, a.updatedAt = :now " +
+            "WHERE a.id = :id AND a.version = :version AND a.status IN :fromStatuses")
+    int transitionStatusAndReleaseSlot(@Param("id") Long id,
+                                       @Param("version") Long version,
+                                       @Param("fromStatuses") Collection<AppointmentStatus> fromStatuses,
+                                       @Param("status") AppointmentStatus status,
+                                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.appointmentDate = :appointmentDate, a.date = :date, a.time = :time, " +
+            "a.slotKey = :slotKey, a.status = :status, a.version = a.version + 1, a.updatedAt = :now " +
+            "WHERE a.id = :id AND a.version = :version AND a.status IN :fromStatuses")
+    int moveAppointment(@Param("id") Long id,
+                        @Param("version") Long version,
+                        @Param("fromStatuses") Collection<AppointmentStatus> fromStatuses,
+                        @Param("appointmentDate") LocalDateTime appointmentDate,
+                        @Param("date") Date date,
+                        @Param("time") String time,
+                        @Param("slotKey") String slotKey,
+                        @Param("status") AppointmentStatus status,
+                        @Param("now") LocalDateTime now);
 }
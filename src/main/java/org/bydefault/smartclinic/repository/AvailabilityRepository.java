@@ -2,10 +2,38 @@ package org.bydefault.smartclinic.repository;
 
 import org.bydefault.smartclinic.entities.Availability;
 import org.bydefault.smartclinic.entities.Day;
+import org.bydefault.smartclinic.services.availability.AvailabilitySlot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 
 public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
     List<Availability> findByDayAndTime(Day dayEnum, String time);
+
+    @Query("SELECT new org.bydefault.smartclinic.services.availability.AvailabilitySlot(a.id, a.doctor.id, a.day, a.time, a.date, a.isAvailable) FROM Availability a")
+    List<AvailabilitySlot> findAllSlots();
+
+    @Query("SELECT new org.bydefault.smartclinic.services.availability.AvailabilitySlot(a.id, a.doctor.id, a.day, a.time, a.date, a.isAvailable) " +
+            "FROM Availability a WHERE a.slotKey IS NULL ORDER BY a.id")
+    List<AvailabilitySlot> findUnkeyedSlots();
+
+    boolean existsByDoctorIdAndSlotKey(Long doctorId, String slotKey);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Availability a SET a.slotKey = :slotKey WHERE a.id = :id AND a.slotKey IS NULL")
+    int claimSlotKey(@Param("id") Long id, @Param("slotKey") String slotKey);
+
+    /**
+     * Ids of accepted doctors with at least one open slot in [from, to), served by idx_availability_date_available_doctor
+     */
+    @Query("SELECT DISTINCT d.id FROM Availability a JOIN a.doctor d WHERE a.date >= :from AND a.date < :to AND a.isAvailable = true AND d.accepted = true ORDER BY d.id")
+    Slice<Long> findAvailableDoctorIds(@Param("from") Date from, @Param("to") Date to, Pageable pageable);
 }
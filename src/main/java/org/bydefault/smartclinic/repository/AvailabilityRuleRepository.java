@@ -0,0 +1,17 @@
+package org.bydefault.smartclinic.repository;
+
+import org.bydefault.smartclinic.entities.AvailabilityRule;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+
+    @Query("SELECT DISTINCT r FROM AvailabilityRule r LEFT JOIN FETCH r.exclusions")
+    List<AvailabilityRule> findAllWithExclusions();
+
+    @EntityGraph(attributePaths = "exclusions")
+    List<AvailabilityRule> findByDoctorId(Long doctorId);
+}
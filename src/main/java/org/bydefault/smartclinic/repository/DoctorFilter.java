@@ -0,0 +1,27 @@
+package org.bydefault.smartclinic.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Criteria of the combined doctor filter, every null criterion is ignored.
+ * <p>
+ * When a date is given, a doctor matches with an open availability slot on that date within [from, to), or when
+ * listed in {@code recurringDoctorIds}, the doctors whose recurring rules already have a free slot in that window.
+ */
+public record DoctorFilter(
+        Long specialtyId,
+        String location,
+        Boolean accepted,
+        LocalDate date,
+        LocalTime from,
+        LocalTime to,
+        Collection<Long> recurringDoctorIds
+) {
+
+    public DoctorFilter {
+        recurringDoctorIds = recurringDoctorIds == null ? Set.of() : recurringDoctorIds;
+    }
+}
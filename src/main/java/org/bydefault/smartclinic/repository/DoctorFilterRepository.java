@@ -0,0 +1,13 @@
+package org.bydefault.smartclinic.repository;
+
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+
+import java.util.List;
+
+public interface DoctorFilterRepository {
+
+    /**
+     * Doctors matching the filter with an id greater than {@code afterId}, in id order, at most {@code limit}
+     */
+    List<DoctorListItemDto> findByFilter(DoctorFilter filter, Long afterId, int limit);
+}
@@ -0,0 +1,100 @@
+package org.bydefault.smartclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.entities.Availability;
+import org.bydefault.smartclinic.entities.Doctor;
+import org.bydefault.smartclinic.entities.Specialty;
+import org.bydefault.smartclinic.entities.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the combined doctor filter as a single Criteria query.
+ * <p>
+ * Only the columns of {@link DoctorListItemDto} are selected, availability is checked with an EXISTS subquery
+ * on the (date, is_available, doctor_id) index, and paging is keyset based on the doctor id so deep pages cost
+ * the same as the first one.
+ */
+public class DoctorFilterRepositoryImpl implements DoctorFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DoctorListItemDto> findByFilter(DoctorFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DoctorListItemDto> query = cb.createQuery(DoctorListItemDto.class);
+        Root<Doctor> doctor = query.from(Doctor.class);
+        Join<Doctor, Specialty> specialty = doctor.join("specialty");
+        Join<Doctor, User> user = doctor.join("user");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(doctor.get("id"), afterId));
+        }
+        if (filter.accepted() != null) {
+            predicates.add(cb.equal(doctor.get("accepted"), filter.accepted()));
+        }
+        if (filter.specialtyId() != null) {
+            // On the foreign key, so idx_doctor_accepted_specialty serves it
+            predicates.add(cb.equal(doctor.get("specialty").get("id"), filter.specialtyId()));
+        }
+        if (filter.location() != null) {
+            predicates.add(cb.like(cb.lower(doctor.get("location")),
+                    "%" + filter.location().toLowerCase(Locale.ROOT) + "%"));
+        }
+        if (filter.date() != null) {
+            predicates.add(availableOn(cb, query, doctor, filter));
+        }
+
+        query.select(cb.construct(DoctorListItemDto.class,
+                        doctor.get("id"),
+                        user.get("firstName"),
+                        user.get("lastName"),
+                        specialty.get("id"),
+                        specialty.get("name"),
+                        doctor.get("location"),
+                        doctor.get("latitude"),
+                        doctor.get("longitude"),
+                        doctor.get("accepted")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(doctor.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private Predicate availableOn(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Doctor> doctor, DoctorFilter filter) {
+        Subquery<Long> slots = query.subquery(Long.class);
+        Root<Availability> availability = slots.from(Availability.class);
+        Date dayStart = java.sql.Date.valueOf(filter.date());
+        Date nextDayStart = java.sql.Date.valueOf(filter.date().plusDays(1));
+
+        List<Predicate> slotPredicates = new ArrayList<>();
+        slotPredicates.add(cb.equal(availability.get("doctor"), doctor));
+        slotPredicates.add(cb.greaterThanOrEqualTo(availability.get("date"), dayStart));
+        slotPredicates.add(cb.lessThan(availability.get("date"), nextDayStart));
+        slotPredicates.add(cb.isTrue(availability.get("isAvailable")));
+        // Times are stored as ISO "HH:mm[:ss]" strings, which sort like the times themselves
+        if (filter.from() != null) {
+            slotPredicates.add(cb.greaterThanOrEqualTo(availability.get("time"), filter.from().toString()));
+        }
+        if (filter.to() != null) {
+            slotPredicates.add(cb.lessThan(availability.get("time"), filter.to().toString()));
+        }
+        slots.select(cb.literal(1L)).where(slotPredicates.toArray(Predicate[]::new));
+
+        Predicate explicitSlot = cb.exists(slots);
+        if (filter.recurringDoctorIds().isEmpty()) {
+            return explicitSlot;
+        }
+        return cb.or(explicitSlot, doctor.get("id").in(filter.recurringDoctorIds()));
+    }
+}
@@ -1,27 +1,70 @@
 package org.bydefault.smartclinic.repository;
 
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorSummaryDto;
 import org.bydefault.smartclinic.entities.Doctor;
-import org.bydefault.smartclinic.entities.Specialty;
 import org.bydefault.smartclinic.entities.User;
+import org.bydefault.smartclinic.services.search.SuggestionSource;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, DoctorFilterRepository {
+
+    // List rows are read straight into DTOs, one query and no entity graph per listing
+    String LIST_ITEM_SELECT = "SELECT new org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto(" +
+            "d.id, u.firstName, u.lastName, s.id, s.name, d.location, d.latitude, d.longitude, d.accepted) " +
+            "FROM Doctor d JOIN d.user u JOIN d.specialty s ";
+
     Doctor findByUser(User user);
 
     Optional<Doctor> findOptionalByUser(User user);
 
     boolean existsByUserId(Long userId);
 
-    List<Doctor> findBySpecialty(Specialty specialty);
+    @Query("SELECT d.id FROM Doctor d WHERE d.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = {"specialty", "user"})
+    List<Doctor> findWithSpecialtyAndUserByAccepted(boolean accepted);
+
+    @Query(LIST_ITEM_SELECT + "WHERE d.accepted = :accepted ORDER BY d.id")
+    List<DoctorListItemDto> findListItemsByAccepted(@Param("accepted") boolean accepted);
+
+    @Query(LIST_ITEM_SELECT + "WHERE s.name = LOWER(:specialtyName) ORDER BY d.id")
+    List<DoctorListItemDto> findListItemsBySpecialtyName(@Param("specialtyName") String specialtyName);
+
+    @Query(LIST_ITEM_SELECT + "WHERE s.id = :specialtyId ORDER BY d.id")
+    List<DoctorListItemDto> findListItemsBySpecialtyId(@Param("specialtyId") Long specialtyId);
+
+    @Query(LIST_ITEM_SELECT + "WHERE LOWER(d.location) LIKE LOWER(CONCAT('%', :location, '%')) ORDER BY d.id")
+    List<DoctorListItemDto> findListItemsByLocation(@Param("location") String location);
+
+    @Query(LIST_ITEM_SELECT + "WHERE d.id IN :ids ORDER BY d.id")
+    List<DoctorListItemDto> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new org.bydefault.smartclinic.dtos.doctor.DoctorSummaryDto(" +
+            "d.id, u.firstName, u.lastName, s.id, s.name, d.location, d.latitude, d.longitude, d.accepted, " +
+            "d.highersQualifications, p.imageUrl) " +
+            "FROM Doctor d JOIN d.user u JOIN d.specialty s LEFT JOIN u.profile p WHERE d.id IN :ids")
+    List<DoctorSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d.id FROM Doctor d WHERE d.accepted = true AND d.specialty.id = :specialtyId " +
+            "AND (:location IS NULL OR LOWER(d.location) LIKE LOWER(CONCAT('%', :location, '%')))")
+    List<Long> findAcceptedIdsBySpecialty(@Param("specialtyId") Long specialtyId, @Param("location") String location);
 
-    List<Doctor> findByLocationContainsIgnoreCase(String location);
+    @EntityGraph(attributePaths = {"specialty", "user", "availabilities"})
+    Optional<Doctor> findDetailById(Long id);
 
-    List<Doctor> findAllByAccepted(boolean b);
+    @Query("SELECT new org.bydefault.smartclinic.services.search.SuggestionSource(d.id, u.firstName, u.lastName, 0L) " +
+            "FROM Doctor d JOIN d.user u WHERE d.accepted = true")
+    List<SuggestionSource> findSuggestionSources();
 
-    @Query("SELECT d FROM Doctor d JOIN d.specialty s WHERE s.name = LOWER(:specialtyName) ")
-    List<Doctor> findBySpecialtyName(String specialtyName);
+    @Query("SELECT d.id FROM Doctor d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,10 +1,14 @@
 package org.bydefault.smartclinic.repository;
 
 import org.bydefault.smartclinic.entities.Specialty;
+import org.bydefault.smartclinic.services.search.SuggestionSource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-import java.util.Optional;
+import java.util.List;
 
 public interface SpecialtyRepository  extends JpaRepository<Specialty, Long> {
-    Optional<Specialty> findByNameContainsIgnoreCase(String name);
+    @Query("SELECT new org.bydefault.smartclinic.services.search.SuggestionSource(s.id, s.name, COUNT(d.id)) " +
+            "FROM Specialty s LEFT JOIN s.doctors d ON d.accepted = true GROUP BY s.id, s.name")
+    List<SuggestionSource> findSuggestionSources();
 }
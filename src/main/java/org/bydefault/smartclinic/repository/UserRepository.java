@@ -1,13 +1,18 @@
 package org.bydefault.smartclinic.repository;
 
+import org.bydefault.smartclinic.entities.Doctor;
 import org.bydefault.smartclinic.entities.Role;
 import org.bydefault.smartclinic.entities.User;
+import org.bydefault.smartclinic.services.stats.DoctorPatientCount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +29,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> getAllUsers(@Param("role") Role role, Pageable pageable);
 
     List<User> findByRole(Role role);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new org.bydefault.smartclinic.services.stats.DoctorPatientCount(u.doctor.id, COUNT(u)) " +
+            "FROM User u WHERE u.doctor IS NOT NULL GROUP BY u.doctor.id")
+    List<DoctorPatientCount> countPatientsByDoctor();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.doctor = :doctor WHERE u.id = :id")
+    int assignDoctor(@Param("id") Long id, @Param("doctor") Doctor doctor);
 }
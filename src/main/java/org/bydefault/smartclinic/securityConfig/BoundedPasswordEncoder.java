@@ -0,0 +1,136 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.dtos.common.PasswordHashingStatsDto;
+import org.bydefault.smartclinic.exception.PasswordHashingBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a password encoder on a small dedicated pool.
+ * <p>
+ * Hashing is deliberately slow and CPU bound. Inline on the servlet threads, a burst of logins takes every core
+ * and stalls unrelated requests. Here at most {@code hashingThreads} hashes run at once, a bounded number wait
+ * for a thread, and anything beyond that, or waiting longer than the timeout, fails fast with a
+ * {@link PasswordHashingBusyException} so the client can retry.
+ * <p>
+ * BCrypt does not check for interrupts, so a hash that has started always runs to the end, even once its caller
+ * timed out. Load is therefore shed before enqueueing: a request whose expected wait already exceeds the timeout
+ * is turned away without taking a place in the queue, and a timed-out request that is still queued is dropped.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String BUSY_MESSAGE = "The server is busy, please try again in a moment";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingConfig config) {
+        this.delegate = delegate;
+        this.queueCapacity = config.getQueueCapacity();
+        this.timeoutMillis = config.getTimeoutMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getHashingThreads(), config.getHashingThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only reads the stored hash's prefix, cheap enough to stay on the caller
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordHashingStatsDto stats() {
+        long completedCount = completed.sum();
+        return new PasswordHashingStatsDto(executor.getCorePoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), queueCapacity, completedCount, rejected.sum(),
+                completedCount == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / completedCount);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        if (wouldTimeOut()) {
+            rejected.increment();
+            log.warn("Password hashing backlog exceeds the {} ms timeout, request turned away", timeoutMillis);
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    totalNanos.add(System.nanoTime() - start);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue is full, request turned away");
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Only a hash still in the queue can be dropped, interrupting a running one would not stop it
+            future.cancel(false);
+            rejected.increment();
+            log.warn("Password hashing timed out after {} ms", timeoutMillis);
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Whether a new hash would finish after the timeout, estimated from the queue depth and the average hash time
+     */
+    private boolean wouldTimeOut() {
+        int queued = executor.getQueue().size();
+        long completedCount = completed.sum();
+        // With nothing queued the request is always let through, so the average keeps being measured
+        if (queued == 0 || completedCount == 0) {
+            return false;
+        }
+        double averageMillis = totalNanos.sum() / 1_000_000.0 / completedCount;
+        double roundsAhead = (double) queued / executor.getCorePoolSize();
+        return (roundsAhead + 1) * averageMillis > timeoutMillis;
+    }
+}
@@ -11,4 +11,7 @@ public class JwtConfig {
     private String secret;
     private int accessTokenExpiration;
     private int refreshTokenExpiration;
+
+    // Most verified tokens kept in memory so repeated requests skip signature verification
+    private int tokenCacheSize = 10_000;
 }
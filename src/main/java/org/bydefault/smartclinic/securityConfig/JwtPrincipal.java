@@ -0,0 +1,18 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import org.bydefault.smartclinic.entities.Role;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature has been verified, read once so callers do not parse the token again
+ */
+public record JwtPrincipal(String tokenId, Long userId, Role role, boolean verified, Instant issuedAt, Instant expiresAt) {
+
+    /**
+     * Whether the token may authenticate a request: issued to a verified account and not expired
+     */
+    public boolean isActive() {
+        return verified && expiresAt.isAfter(Instant.now());
+    }
+}
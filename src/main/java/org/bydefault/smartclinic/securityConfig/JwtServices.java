@@ -3,22 +3,40 @@ package org.bydefault.smartclinic.securityConfig;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bydefault.smartclinic.entities.Role;
 import org.bydefault.smartclinic.entities.User;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
-@AllArgsConstructor
 @Slf4j
 public class JwtServices {
 
-    private JwtConfig jwtConfig;
+    private final JwtConfig jwtConfig;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    // The key and the parser are immutable and thread-safe, both are built once instead of per token
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtServices(JwtConfig jwtConfig, VerifiedTokenCache verifiedTokenCache,
+                       TokenRevocationService tokenRevocationService) {
+        this.jwtConfig = jwtConfig;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.signingKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
 
     public String generateAccessToken(User user) {
         return generateToken(user, jwtConfig.getAccessTokenExpiration());
@@ -30,6 +48,7 @@ public class JwtServices {
 
     private String generateToken(User user, long tokenExpirationInSeconds) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getId().toString())
                 .claim("email", user.getEmail())
                 .claim("username", user.getUsername())
@@ -37,36 +56,54 @@ public class JwtServices {
                 .claim("verified", user.getIsVerified())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + tokenExpirationInSeconds))
-                .signWith(Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes()))
+                .signWith(signingKey)
                 .compact();
     }
 
-    public boolean validateJwtToken(String token) {
+    /**
+     * Verify the token's signature and read its claims in a single parse, empty if it is malformed,
+     * tampered with or expired
+     */
+    public Optional<JwtPrincipal> verify(String token) {
         try {
-            var claims = getClaims(token);
-            var verified = claims.get("verified", Boolean.class);
-            boolean isVerified = verified != null && verified;
-            boolean isNotExpired = claims.getExpiration().after(new Date());
-            log.debug("Token validation result: isVerified={}, isNotExpired={}", isVerified, isNotExpired);
-            return  isVerified && isNotExpired;
-        } catch (JwtException e) {
-            return false;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Boolean verified = claims.get("verified", Boolean.class);
+            Date issuedAt = claims.getIssuedAt();
+            return Optional.of(new JwtPrincipal(
+                    claims.getId(),
+                    Long.valueOf(claims.getSubject()),
+                    Role.valueOf(claims.get("role", String.class)),
+                    verified != null && verified,
+                    issuedAt != null ? issuedAt.toInstant() : Instant.EPOCH,
+                    claims.getExpiration().toInstant()));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token rejected: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes()))
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verify the token and keep it only if it may authenticate a request and has not been revoked
+     */
+    public Optional<JwtPrincipal> verifyActive(String token) {
+        Optional<JwtPrincipal> principal = verify(token)
+                .filter(JwtPrincipal::isActive)
+                .filter(verified -> !tokenRevocationService.isRevoked(verified));
+        log.debug("Token validation result: active={}", principal.isPresent());
+        return principal;
     }
 
-    public Long getUserIdFromJwtToken(String token) {
-        return Long.valueOf(getClaims(token).getSubject());
-    }
-
-    public Role getUserRoleFromJwtToken(String token) {
-        return Role.valueOf(getClaims(token).get("role", String.class));
+    /**
+     * Resolve the principal of a request's access token, verifying the signature only on a cache miss
+     */
+    public Optional<JwtPrincipal> authenticate(String token) {
+        Optional<JwtPrincipal> cached = verifiedTokenCache.get(token);
+        if (cached.isPresent()) {
+            // Revocations after the token was cached still apply
+            return cached.filter(principal -> !tokenRevocationService.isRevoked(principal));
+        }
+        Optional<JwtPrincipal> principal = verifyActive(token);
+        principal.ifPresent(verified -> verifiedTokenCache.put(token, verified));
+        return principal;
     }
 }
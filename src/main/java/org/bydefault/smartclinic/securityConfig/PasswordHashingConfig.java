@@ -0,0 +1,22 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.password")
+@Data
+public class PasswordHashingConfig {
+    // BCrypt work factor of new hashes, weaker stored hashes are upgraded on the next login
+    private int bcryptStrength = 12;
+
+    // Threads hashing passwords, the remaining cores stay with the other requests
+    private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    // Hashes allowed to wait for a thread before further requests are turned away
+    private int queueCapacity = 64;
+
+    // Longest a request waits for its hash, queued time included
+    private long timeoutMillis = 5_000;
+}
@@ -3,43 +3,49 @@ package org.bydefault.smartclinic.securityConfig;
 
 import lombok.AllArgsConstructor;
 import org.bydefault.smartclinic.filters.JwtFilters;
+import org.bydefault.smartclinic.repository.UserRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @AllArgsConstructor
 public class SecurityConfig {
 
-    private final UserServiceSec userServiceSec;
+    private final UserRepository userRepository;
     private final JwtFilters jwtFilters;
+    private final PasswordHashingConfig passwordHashingConfig;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        // New hashes are {bcrypt}-prefixed, stored hashes without a prefix predate it and are plain BCrypt
+        var encoders = Map.<String, PasswordEncoder>of(
+                "bcrypt", new BCryptPasswordEncoder(passwordHashingConfig.getBcryptStrength()));
+        var delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new BoundedPasswordEncoder(delegating, passwordHashingConfig);
     }
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
-        var provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(passwordEncoder());
-        provider.setUserDetailsService(userServiceSec);
-        return provider;
+        return new UserAuthenticationProvider(userRepository, passwordEncoder());
     }
 
     @Bean
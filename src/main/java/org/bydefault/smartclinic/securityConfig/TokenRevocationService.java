@@ -0,0 +1,139 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.RevokedToken;
+import org.bydefault.smartclinic.repository.RevokedTokenRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revokes single tokens by their jti and every token of a user issued before a cut-off.
+ * <p>
+ * Revocations are persisted and mirrored in memory, so checking a request never touches the database. Revoked
+ * token ids sit behind a Bloom filter: an id it has not seen, which is almost every id, is rejected by a few
+ * bit probes and the exact map is only consulted on a possible match. Per-user cut-offs are few, they live
+ * in a plain map. Entries are purged once every token they cover has expired.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final int EXPECTED_REVOCATIONS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long maxTokenLifetimeMillis;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    // user id -> tokens issued before this epoch second are revoked
+    private final Map<Long, Long> userNotBefore = new ConcurrentHashMap<>();
+    private volatile BloomFilter revokedTokenFilter = new BloomFilter(EXPECTED_REVOCATIONS, FALSE_POSITIVE_RATE);
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtConfig jwtConfig) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.maxTokenLifetimeMillis = Math.max(jwtConfig.getAccessTokenExpiration(), jwtConfig.getRefreshTokenExpiration());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        revokedTokenIds.clear();
+        userNotBefore.clear();
+        List<RevokedToken> revocations = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        revocations.forEach(this::remember);
+        rebuildFilter();
+        log.info("Loaded {} revoked tokens and {} user revocations", revokedTokenIds.size(), userNotBefore.size());
+    }
+
+    /**
+     * Whether the token was revoked on its own or issued before its user's cut-off
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        Long notBefore = userNotBefore.get(principal.userId());
+        if (notBefore != null && principal.issuedAt().getEpochSecond() < notBefore) {
+            return true;
+        }
+        String tokenId = principal.tokenId();
+        return tokenId != null && revokedTokenFilter.mightContain(tokenId) && revokedTokenIds.containsKey(tokenId);
+    }
+
+    /**
+     * Revoke one token, e.g. on logout
+     */
+    public void revokeToken(JwtPrincipal principal) {
+        if (principal.tokenId() == null || revokedTokenIds.containsKey(principal.tokenId())
+                || revokedTokenRepository.existsByTokenId(principal.tokenId())) {
+            return;
+        }
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(principal.tokenId());
+        revokedToken.setUserId(principal.userId());
+        revokedToken.setExpiresAt(toLocalDateTime(principal.expiresAt()));
+        revokedTokenRepository.save(revokedToken);
+        AfterCommit.run(() -> remember(revokedToken));
+    }
+
+    /**
+     * Revoke every token issued to the user so far, e.g. after a password change or when the user is deleted
+     */
+    public void revokeUser(Long userId) {
+        // Token issue times have second precision, the cut-off is rounded up so every token issued in the current
+        // second is revoked too. A login within that same second is revoked with them and has to be repeated.
+        Instant notBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setUserId(userId);
+        revokedToken.setNotBefore(toLocalDateTime(notBefore));
+        revokedToken.setExpiresAt(toLocalDateTime(notBefore.plusMillis(maxTokenLifetimeMillis)));
+        revokedTokenRepository.save(revokedToken);
+        AfterCommit.run(() -> remember(revokedToken));
+        log.info("Revoked all tokens of user {}", userId);
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public synchronized void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        long now = System.currentTimeMillis();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+        userNotBefore.values().removeIf(notBefore -> notBefore * 1000 + maxTokenLifetimeMillis <= now);
+        // Ids cannot be removed from a Bloom filter, a fresh one holds only the live revocations
+        rebuildFilter();
+        if (deleted > 0) {
+            log.info("Purged {} expired token revocations", deleted);
+        }
+    }
+
+    private synchronized void remember(RevokedToken revokedToken) {
+        if (revokedToken.getTokenId() != null) {
+            // The exact map is written before the filter, a filter hit always finds the id
+            revokedTokenIds.put(revokedToken.getTokenId(), toInstant(revokedToken.getExpiresAt()).toEpochMilli());
+            revokedTokenFilter.add(revokedToken.getTokenId());
+        } else {
+            userNotBefore.merge(revokedToken.getUserId(), toInstant(revokedToken.getNotBefore()).getEpochSecond(), Math::max);
+        }
+    }
+
+    private void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(EXPECTED_REVOCATIONS, revokedTokenIds.size() * 2), FALSE_POSITIVE_RATE);
+        revokedTokenIds.keySet().forEach(filter::add);
+        revokedTokenFilter = filter;
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
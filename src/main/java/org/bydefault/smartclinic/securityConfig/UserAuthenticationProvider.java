@@ -0,0 +1,75 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.User;
+import org.bydefault.smartclinic.repository.UserRepository;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authenticates an email and password against the user table with a single lookup.
+ * <p>
+ * The loaded {@link User} becomes the principal of the returned authentication, so the login can issue tokens
+ * without reading the user again. Unverified accounts are turned away before the password hash is checked,
+ * and hashes below the configured work factor are re-encoded after a successful match.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String BAD_CREDENTIALS_MESSAGE = "Invalid email or password";
+
+    private final UserRepository userRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    // Checked against for unknown emails, so they take as long as a wrong password
+    private volatile String unknownUserPassword;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        String rawPassword = authentication.getCredentials() != null ? authentication.getCredentials().toString() : "";
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            passwordEncoder.matches(rawPassword, unknownUserPassword());
+            throw new BadCredentialsException(BAD_CREDENTIALS_MESSAGE);
+        }
+        if (!Boolean.TRUE.equals(user.getIsVerified())) {
+            throw new DisabledException("Please verify your account before logging in");
+        }
+        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+            throw new BadCredentialsException(BAD_CREDENTIALS_MESSAGE);
+        }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            String upgraded = passwordEncoder.encode(rawPassword);
+            userRepository.updatePasswordByEmail(user.getEmail(), upgraded);
+            user.setPassword(upgraded);
+            log.debug("Upgraded password hash of user {}", user.getId());
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(user, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    private String unknownUserPassword() {
+        String encoded = unknownUserPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode("unknown-user-password");
+            unknownUserPassword = encoded;
+        }
+        return encoded;
+    }
+}
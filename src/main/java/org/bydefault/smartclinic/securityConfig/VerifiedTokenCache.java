@@ -0,0 +1,110 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.dtos.common.CacheStatsDto;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Claims of recently verified tokens keyed by a SHA-256 digest of the token.
+ * <p>
+ * Clients send the same access token for its whole lifetime, a hit skips parsing and signature verification.
+ * Raw tokens are never kept. Entries leave the cache when their token expires, and the cache holds at most
+ * {@code spring.jwt.token-cache-size} entries: once full, expired entries are swept and new tokens are only
+ * verified until room frees up.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final String NAME = "verified-tokens";
+    private static final long MIN_SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final int maxSize;
+    private final Map<String, JwtPrincipal> entries = new ConcurrentHashMap<>();
+    private volatile long lastSweepMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public VerifiedTokenCache(JwtConfig jwtConfig) {
+        this.maxSize = jwtConfig.getTokenCacheSize();
+    }
+
+    public Optional<JwtPrincipal> get(String token) {
+        String key = digest(token);
+        JwtPrincipal principal = entries.get(key);
+        if (principal != null && principal.expiresAt().isAfter(Instant.now())) {
+            hits.increment();
+            return Optional.of(principal);
+        }
+        if (principal != null) {
+            entries.remove(key, principal);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String token, JwtPrincipal principal) {
+        if (entries.size() >= maxSize) {
+            // A full cache of live tokens would otherwise be swept on every miss
+            if (System.currentTimeMillis() - lastSweepMillis >= MIN_SWEEP_INTERVAL_MILLIS) {
+                evictExpired();
+            }
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(digest(token), principal);
+    }
+
+    /**
+     * Drop every cached token of the user once the current transaction commits
+     */
+    public void invalidateUserAfterCommit(Long userId) {
+        AfterCommit.run(() -> invalidateUser(userId));
+    }
+
+    public void invalidateUser(Long userId) {
+        if (entries.values().removeIf(principal -> principal.userId().equals(userId))) {
+            invalidations.increment();
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        lastSweepMillis = System.currentTimeMillis();
+        Instant now = Instant.now();
+        entries.values().removeIf(principal -> !principal.expiresAt().isAfter(now));
+    }
+
+    public CacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new CacheStatsDto(NAME, entries.size(), hitCount, missCount,
+                requests == 0 ? 0.0 : (double) hitCount / requests, invalidations.sum());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
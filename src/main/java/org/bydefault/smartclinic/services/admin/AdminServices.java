@@ -1,8 +1,10 @@
 package org.bydefault.smartclinic.services.admin;
 
 import org.bydefault.smartclinic.dtos.common.*;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
 import org.bydefault.smartclinic.entities.Role;
 import org.springframework.data.domain.Page;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -24,6 +26,10 @@ public interface AdminServices {
 
     String deleteAppointment(Long id);
 
+    AppointmentImportResultDto importAppointments(MultipartFile file);
+
+    String transitionAppointments(AppointmentStatusTransitionDto transitionDto);
+
     List<AppointmentDto> getAppointmentByDoctorId(Long doctorId);
 
     List<AppointmentDto> getAppointmentByPatientId(Long id);
@@ -38,5 +44,9 @@ public interface AdminServices {
 
     List<SpecialtyDto> getAllSpecialties();
 
-    List<DoctorDto> getAllDoctorsBySpecialtyId(Long specialtyId);
+    List<DoctorListItemDto> getAllDoctorsBySpecialtyId(Long specialtyId);
+
+    List<CacheStatsDto> getCacheStats();
+
+    PasswordHashingStatsDto getPasswordHashingStats();
 }
@@ -0,0 +1,258 @@
+package org.bydefault.smartclinic.services.appointment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.dtos.common.AppointmentImportResultDto;
+import org.bydefault.smartclinic.entities.Appointment;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+import org.bydefault.smartclinic.exception.InvalidStateException;
+import org.bydefault.smartclinic.repository.AppointmentRepository;
+import org.bydefault.smartclinic.repository.DoctorRepository;
+import org.bydefault.smartclinic.repository.UserRepository;
+import org.bydefault.smartclinic.services.calendar.DoctorCalendar;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.bydefault.smartclinic.services.stats.DoctorStatsRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Set-based appointment operations used for clinic migrations and mass status changes.
+ * <p>
+ * Imports are streamed and processed in chunks: every chunk costs one query per kind of lookup (doctors,
+ * patients, slot conflicts) and one JDBC batch insert, whatever its size. Status transitions select the
+ * affected appointments with one projection query and move them with a single {@code UPDATE}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentBulkService {
+
+    public static final int CHUNK_SIZE = 1000;
+    public static final int MAX_TRANSITION_IDS = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String INSERT_SQL = "INSERT INTO appointment " +
+            "(description, date, time, appointment_date, doctor_id, patient_id, status, slot_key, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Set<AppointmentStatus> ACTIVE_STATUSES = EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.ACCEPTED);
+
+    // Target status -> statuses an appointment may be moved from in bulk
+    private static final Map<AppointmentStatus, Set<AppointmentStatus>> BULK_TRANSITIONS = Map.of(
+            AppointmentStatus.ACCEPTED, EnumSet.of(AppointmentStatus.PENDING),
+            AppointmentStatus.CANCELED, EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.ACCEPTED),
+            AppointmentStatus.REJECTED, EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.ACCEPTED),
+            AppointmentStatus.COMPLETED, EnumSet.of(AppointmentStatus.ACCEPTED),
+            AppointmentStatus.NO_SHOW, EnumSet.of(AppointmentStatus.ACCEPTED));
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+    private final DoctorCalendar doctorCalendar;
+    private final DoctorStatsRegistry doctorStatsRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Import appointments from a CSV or JSON file in one transaction.
+     * <p>
+     * Invalid records and records whose doctor slot is already taken are reported and skipped, the rest is imported.
+     * Records without a status are imported as COMPLETED when in the past and PENDING otherwise.
+     */
+    public AppointmentImportResultDto importAppointments(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file cannot be empty");
+        }
+        ImportState state = new ImportState();
+        try (InputStream inputStream = file.getInputStream()) {
+            Iterator<AppointmentImportRow> rows = isJson(file)
+                    ? AppointmentImportReader.json(inputStream, objectMapper)
+                    : AppointmentImportReader.csv(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<AppointmentImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (rows.hasNext()) {
+                    chunk.add(rows.next());
+                    if (chunk.size() == CHUNK_SIZE) {
+                        importChunk(chunk, state);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    importChunk(chunk, state);
+                }
+            });
+        } catch (IOException e) {
+            log.error("Error reading appointment import: {}", e.getMessage());
+            throw new RuntimeException("Failed to read the import file", e);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Appointment import conflicted with a concurrent booking: {}", e.getMessage());
+            throw new InvalidStateException("Import conflicts with appointments booked in the meantime, nothing was imported");
+        }
+
+        // Only upcoming active appointments occupy the doctors' calendars, booked once a caller's transaction commits
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        AfterCommit.run(() -> state.claimed.stream()
+                .filter(slot -> !slot.appointmentDate().isBefore(today))
+                .forEach(slot -> doctorCalendar.book(slot.doctorId(), slot.appointmentDate())));
+        doctorStatsRegistry.reloadAfterCommit();
+        log.info("Imported {} appointments, {} records rejected", state.imported, state.rejected);
+        return new AppointmentImportResultDto(state.imported, state.rejected, state.errors);
+    }
+
+    /**
+     * Move appointments selected by id to the given status
+     */
+    public int transition(Collection<Long> appointmentIds, AppointmentStatus status) {
+        if (appointmentIds.size() > MAX_TRANSITION_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_TRANSITION_IDS + " appointments can be selected by id at once");
+        }
+        Set<AppointmentStatus> fromStatuses = allowedSources(status);
+        return apply(appointmentRepository.findSlotsByIds(appointmentIds, fromStatuses), fromStatuses, status);
+    }
+
+    /**
+     * Move all appointments of a doctor on the given date to the given status, e.g. cancel a sick day
+     */
+    public int transition(Long doctorId, LocalDate date, AppointmentStatus status) {
+        Set<AppointmentStatus> fromStatuses = allowedSources(status);
+        return apply(appointmentRepository.findDoctorSlotsBetween(doctorId, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay(), fromStatuses), fromStatuses, status);
+    }
+
+    private int apply(List<AppointmentSlot> slots, Set<AppointmentStatus> fromStatuses, AppointmentStatus status) {
+        if (slots.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = slots.stream().map(AppointmentSlot::appointmentId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        // The statuses left are not known per appointment, the counters are aggregated again instead
+        doctorStatsRegistry.reloadAfterCommit();
+        // Leaving the active statuses gives the slot back, moving between them keeps it claimed
+        if (ACTIVE_STATUSES.contains(status)) {
+            return appointmentRepository.updateStatus(ids, fromStatuses, status, now);
+        }
+        int updated = appointmentRepository.updateStatusAndReleaseSlot(ids, fromStatuses, status, now);
+        // The cells only open up once the status change is durable
+        AfterCommit.run(() -> slots.forEach(slot -> doctorCalendar.release(slot.doctorId(), slot.appointmentDate())));
+        return updated;
+    }
+
+    private static Set<AppointmentStatus> allowedSources(AppointmentStatus status) {
+        Set<AppointmentStatus> fromStatuses = BULK_TRANSITIONS.get(status);
+        if (fromStatuses == null) {
+            throw new IllegalArgumentException("Appointments cannot be moved to " + status + " in bulk");
+        }
+        return fromStatuses;
+    }
+
+    private void importChunk(List<AppointmentImportRow> chunk, ImportState state) {
+        Set<Long> doctorIds = new HashSet<>();
+        Set<Long> patientIds = new HashSet<>();
+        for (AppointmentImportRow row : chunk) {
+            if (row.error() == null) {
+                doctorIds.add(row.doctorId());
+                patientIds.add(row.patientId());
+            }
+        }
+        Set<Long> knownDoctors = doctorIds.isEmpty() ? Set.of() : new HashSet<>(doctorRepository.findExistingIds(doctorIds));
+        Set<Long> knownPatients = patientIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(patientIds));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ImportedAppointment> accepted = new ArrayList<>(chunk.size());
+        for (AppointmentImportRow row : chunk) {
+            if (row.error() != null) {
+                state.reject(row.line(), row.error());
+            } else if (!knownDoctors.contains(row.doctorId())) {
+                state.reject(row.line(), "Doctor not found with id: " + row.doctorId());
+            } else if (!knownPatients.contains(row.patientId())) {
+                state.reject(row.line(), "Patient not found with id: " + row.patientId());
+            } else {
+                AppointmentStatus status = row.status() != null ? row.status()
+                        : row.appointmentDate().isBefore(now) ? AppointmentStatus.COMPLETED : AppointmentStatus.PENDING;
+                String slotKey = ACTIVE_STATUSES.contains(status) ? Appointment.slotKey(row.doctorId(), row.appointmentDate()) : null;
+                if (slotKey != null && !state.slotKeys.add(slotKey)) {
+                    state.reject(row.line(), "Doctor already has an appointment at " + row.appointmentDate() + " in this import");
+                } else {
+                    accepted.add(new ImportedAppointment(row, status, slotKey));
+                }
+            }
+        }
+
+        // One lookup for the whole chunk against the slots already claimed in the database
+        List<String> slotKeys = accepted.stream().map(ImportedAppointment::slotKey).filter(Objects::nonNull).toList();
+        if (!slotKeys.isEmpty()) {
+            Set<String> taken = new HashSet<>(appointmentRepository.findExistingSlotKeys(slotKeys));
+            if (!taken.isEmpty()) {
+                accepted.removeIf(appointment -> {
+                    if (appointment.slotKey() != null && taken.contains(appointment.slotKey())) {
+                        state.reject(appointment.row().line(), "Doctor already has an appointment at " + appointment.row().appointmentDate());
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        Timestamp createdAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_SQL, accepted, accepted.size(), (ps, appointment) -> {
+            AppointmentImportRow row = appointment.row();
+            ps.setString(1, row.description() != null ? row.description() : "");
+            ps.setTimestamp(2, Timestamp.valueOf(row.appointmentDate().toLocalDate().atStartOfDay()));
+            ps.setString(3, row.appointmentDate().toLocalTime().toString());
+            ps.setTimestamp(4, Timestamp.valueOf(row.appointmentDate()));
+            ps.setLong(5, row.doctorId());
+            ps.setLong(6, row.patientId());
+            ps.setString(7, appointment.status().name());
+            ps.setString(8, appointment.slotKey());
+            ps.setTimestamp(9, createdAt);
+        });
+        state.imported += accepted.size();
+        accepted.stream()
+                .filter(appointment -> appointment.slotKey() != null)
+                .forEach(appointment -> state.claimed.add(
+                        new AppointmentSlot(null, appointment.row().doctorId(), appointment.row().appointmentDate())));
+    }
+
+    private static boolean isJson(MultipartFile file) {
+        String contentType = file.getContentType();
+        String filename = file.getOriginalFilename();
+        return (contentType != null && contentType.contains("json"))
+                || (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".json"));
+    }
+
+    private record ImportedAppointment(AppointmentImportRow row, AppointmentStatus status, String slotKey) {
+    }
+
+    private static final class ImportState {
+        private final Set<String> slotKeys = new HashSet<>();
+        private final List<AppointmentSlot> claimed = new ArrayList<>();
+        private final List<AppointmentImportResultDto.RejectedRecord> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new AppointmentImportResultDto.RejectedRecord(line, message));
+            }
+        }
+    }
+}
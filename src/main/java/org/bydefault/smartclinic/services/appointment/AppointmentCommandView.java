@@ -0,0 +1,39 @@
+package org.bydefault.smartclinic.services.appointment;
+
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the appointment commands need to know about an appointment, read in one query instead of
+ * loading the appointment, its doctor, the doctor's user and the patient.
+ */
+public record AppointmentCommandView(Long id,
+                                     AppointmentStatus status,
+                                     Long version,
+                                     LocalDateTime appointmentDate,
+                                     Long patientId,
+                                     String patientFirstName,
+                                     String patientLastName,
+                                     Long patientDoctorId,
+                                     Long doctorId,
+                                     Long doctorUserId,
+                                     String doctorFirstName,
+                                     String doctorLastName) {
+
+    public boolean isPatient(Long userId) {
+        return patientId != null && patientId.equals(userId);
+    }
+
+    public boolean isDoctor(Long userId) {
+        return doctorUserId != null && doctorUserId.equals(userId);
+    }
+
+    public String patientFullName() {
+        return patientFirstName + " " + patientLastName;
+    }
+
+    public String doctorFullName() {
+        return doctorFirstName + " " + doctorLastName;
+    }
+}
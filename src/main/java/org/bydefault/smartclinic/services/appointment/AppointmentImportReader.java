@@ -0,0 +1,211 @@
+package org.bydefault.smartclinic.services.appointment;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Streaming readers for appointment imports.
+ * <p>
+ * Records are parsed one at a time as the iterator is advanced, so an import of any size only keeps the
+ * current chunk in memory. CSV files need a header row naming the columns {@code doctorId}, {@code patientId},
+ * {@code appointmentDate} (ISO date-time) and optionally {@code status} and {@code description}; JSON files
+ * hold an array of objects with the same fields.
+ */
+public final class AppointmentImportReader {
+
+    private static final String DOCTOR_ID = "doctorid";
+    private static final String PATIENT_ID = "patientid";
+    private static final String APPOINTMENT_DATE = "appointmentdate";
+    private static final String STATUS = "status";
+    private static final String DESCRIPTION = "description";
+
+    private AppointmentImportReader() {
+    }
+
+    public static Iterator<AppointmentImportRow> csv(BufferedReader reader) {
+        String header = readLine(reader);
+        if (header == null) {
+            return Collections.emptyIterator();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of(DOCTOR_ID, PATIENT_ID, APPOINTMENT_DATE)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the column: " + required);
+            }
+        }
+        return new Iterator<>() {
+            private long line = 1;
+            private String next = advance();
+
+            private String advance() {
+                String current;
+                do {
+                    current = readLine(reader);
+                    line++;
+                } while (current != null && current.isBlank());
+                return current;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public AppointmentImportRow next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> values = splitCsvLine(next);
+                long current = line;
+                next = advance();
+                return toRow(current, name -> {
+                    Integer index = columns.get(name);
+                    return index == null || index >= values.size() ? null : values.get(index);
+                });
+            }
+        };
+    }
+
+    public static Iterator<AppointmentImportRow> json(InputStream inputStream, ObjectMapper objectMapper) {
+        JsonParser parser;
+        try {
+            parser = objectMapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON import must be an array of appointments");
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON import: " + e.getMessage());
+        }
+        return new Iterator<>() {
+            private long record = 0;
+            private JsonToken token = nextToken();
+
+            private JsonToken nextToken() {
+                try {
+                    return parser.nextToken();
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Invalid JSON import after record " + record + ": " + e.getMessage());
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return token == JsonToken.START_OBJECT;
+            }
+
+            @Override
+            public AppointmentImportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                record++;
+                JsonNode node;
+                try {
+                    // Only the current object is materialised
+                    node = objectMapper.readTree(parser);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Invalid JSON import at record " + record + ": " + e.getMessage());
+                }
+                token = nextToken();
+                Map<String, JsonNode> fields = new HashMap<>();
+                node.fields().forEachRemaining(field -> fields.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue()));
+                return toRow(record, name -> {
+                    JsonNode value = fields.get(name);
+                    return value == null || value.isNull() ? null : value.asText();
+                });
+            }
+        };
+    }
+
+    private static AppointmentImportRow toRow(long line, Function<String, String> field) {
+        try {
+            Long doctorId = parseId(field.apply(DOCTOR_ID), "doctorId");
+            Long patientId = parseId(field.apply(PATIENT_ID), "patientId");
+            String date = trimToNull(field.apply(APPOINTMENT_DATE));
+            if (date == null) {
+                return AppointmentImportRow.invalid(line, "appointmentDate is required");
+            }
+            LocalDateTime appointmentDate = LocalDateTime.parse(date);
+            String status = trimToNull(field.apply(STATUS));
+            AppointmentStatus appointmentStatus = status == null ? null : AppointmentStatus.valueOf(status.toUpperCase(Locale.ROOT));
+            return new AppointmentImportRow(line, doctorId, patientId, appointmentDate, appointmentStatus,
+                    trimToNull(field.apply(DESCRIPTION)), null);
+        } catch (DateTimeParseException e) {
+            return AppointmentImportRow.invalid(line, "Invalid appointmentDate: " + e.getParsedString());
+        } catch (IllegalArgumentException e) {
+            return AppointmentImportRow.invalid(line, e.getMessage());
+        }
+    }
+
+    private static Long parseId(String value, String name) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        try {
+            return Long.valueOf(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + trimmed);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String readLine(BufferedReader reader) {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and doubled quotes inside them
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,21 @@
+package org.bydefault.smartclinic.services.appointment;
+
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One parsed record of an appointment import, {@code error} is set when the record could not be parsed
+ */
+public record AppointmentImportRow(long line,
+                                   Long doctorId,
+                                   Long patientId,
+                                   LocalDateTime appointmentDate,
+                                   AppointmentStatus status,
+                                   String description,
+                                   String error) {
+
+    public static AppointmentImportRow invalid(long line, String error) {
+        return new AppointmentImportRow(line, null, null, null, null, null, error);
+    }
+}
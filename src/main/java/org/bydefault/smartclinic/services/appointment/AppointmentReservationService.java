@@ -0,0 +1,176 @@
+package org.bydefault.smartclinic.services.appointment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.Appointment;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+import org.bydefault.smartclinic.entities.Doctor;
+import org.bydefault.smartclinic.entities.User;
+import org.bydefault.smartclinic.exception.InvalidStateException;
+import org.bydefault.smartclinic.repository.AppointmentRepository;
+import org.bydefault.smartclinic.services.calendar.DoctorCalendar;
+import org.bydefault.smartclinic.services.stats.DoctorStatsRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Claims (doctor, slot) pairs for appointments.
+ * <p>
+ * Every active appointment holds a unique slot key in the database, so a double booking is rejected by
+ * the unique index even across application instances. Within one instance, bookings for the same doctor
+ * are serialised on a striped lock, which keeps the common conflict path to a single indexed lookup and
+ * lets bookings for different doctors proceed in parallel.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentReservationService {
+
+    private static final int STRIPES = 256;
+    private static final String SLOT_TAKEN_MESSAGE = "Doctor already has an appointment at the requested time";
+    private static final String SLOT_CLOSED_MESSAGE = "Doctor has no available time slot at the requested time";
+    private static final List<AppointmentStatus> ACTIVE_STATUSES = List.of(AppointmentStatus.PENDING, AppointmentStatus.ACCEPTED);
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorCalendar doctorCalendar;
+    private final DoctorStatsRegistry doctorStatsRegistry;
+    private final Lock[] stripes = createStripes();
+
+    /**
+     * Backfill slot keys for active appointments created before slot keys existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void claimExistingSlots() {
+        List<AppointmentSlot> unclaimed = appointmentRepository.findUnclaimedSlots(LocalDateTime.now(), ACTIVE_STATUSES);
+        Set<String> claimed = new HashSet<>();
+        int skipped = 0;
+        for (AppointmentSlot slot : unclaimed) {
+            String slotKey = Appointment.slotKey(slot.doctorId(), slot.appointmentDate());
+            if (!claimed.add(slotKey) || appointmentRepository.existsBySlotKey(slotKey)) {
+                skipped++;
+                continue;
+            }
+            appointmentRepository.claimSlotKey(slot.appointmentId(), slotKey);
+        }
+        if (!unclaimed.isEmpty()) {
+            log.info("Claimed slot keys for {} existing appointments, {} conflicting appointments skipped",
+                    unclaimed.size() - skipped, skipped);
+        }
+    }
+
+    /**
+     * Create a pending appointment for the patient, failing if the doctor's slot is already taken
+     */
+    public Appointment reserve(Doctor doctor, User patient, LocalDateTime appointmentDate, String description) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setStatus(AppointmentStatus.PENDING);
+        appointment.setDescription(description != null ? description : "");
+        moveTo(appointment, appointmentDate);
+        Appointment saved = claim(appointment);
+        doctorCalendar.book(doctor.getId(), appointmentDate);
+        doctorStatsRegistry.onBooked(doctor.getId(), appointmentDate);
+        return saved;
+    }
+
+    /**
+     * Move an active appointment to a new time with one conditional update, failing if the doctor's new slot
+     * is already taken or the appointment changed since it was read. The appointment goes back to PENDING.
+     */
+    public void reschedule(AppointmentCommandView appointment, LocalDateTime newAppointmentDate) {
+        Long doctorId = appointment.doctorId();
+        String slotKey = Appointment.slotKey(doctorId, newAppointmentDate);
+        Lock lock = stripeFor(doctorId);
+        // Staying in its own cell needs no free check, the cell is only busy because of this appointment
+        boolean sameCell = appointment.appointmentDate() != null
+                && slotKey.equals(Appointment.slotKey(doctorId, appointment.appointmentDate()));
+        lock.lock();
+        try {
+            if (!sameCell && !doctorCalendar.isFree(doctorId, newAppointmentDate)) {
+                throw new InvalidStateException(SLOT_CLOSED_MESSAGE);
+            }
+            if (appointmentRepository.existsBySlotKeyAndIdNot(slotKey, appointment.id())) {
+                throw new InvalidStateException(SLOT_TAKEN_MESSAGE);
+            }
+            int updated = appointmentRepository.moveAppointment(appointment.id(), appointment.version(), ACTIVE_STATUSES,
+                    newAppointmentDate, java.sql.Date.valueOf(newAppointmentDate.toLocalDate()),
+                    newAppointmentDate.toLocalTime().toString(), slotKey, AppointmentStatus.PENDING, LocalDateTime.now());
+            if (updated == 0) {
+                throw new ObjectOptimisticLockingFailureException(Appointment.class, appointment.id());
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Slot {} was claimed concurrently", slotKey);
+            throw new InvalidStateException(SLOT_TAKEN_MESSAGE);
+        } finally {
+            lock.unlock();
+        }
+        if (appointment.appointmentDate() != null) {
+            doctorCalendar.release(doctorId, appointment.appointmentDate());
+        }
+        doctorCalendar.book(doctorId, newAppointmentDate);
+        // The appointment leaves its old day and comes back as pending on the new one
+        doctorStatsRegistry.onRemoved(doctorId, appointment.appointmentDate(), appointment.status());
+        doctorStatsRegistry.onBooked(doctorId, newAppointmentDate);
+    }
+
+    /**
+     * Give a doctor's slot back in the calendar, the slot key is cleared by the status update that released it
+     */
+    public void release(Long doctorId, LocalDateTime appointmentDate) {
+        if (appointmentDate != null) {
+            doctorCalendar.release(doctorId, appointmentDate);
+        }
+    }
+
+    private Appointment claim(Appointment appointment) {
+        Long doctorId = appointment.getDoctor().getId();
+        String slotKey = appointment.getSlotKey();
+        Lock lock = stripeFor(doctorId);
+        lock.lock();
+        try {
+            boolean taken = appointment.getId() == null
+                    ? appointmentRepository.existsBySlotKey(slotKey)
+                    : appointmentRepository.existsBySlotKeyAndIdNot(slotKey, appointment.getId());
+            if (taken) {
+                throw new InvalidStateException(SLOT_TAKEN_MESSAGE);
+            }
+            // Flush while holding the stripe, the unique index catches writers from other instances
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Slot {} was claimed concurrently", slotKey);
+            throw new InvalidStateException(SLOT_TAKEN_MESSAGE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void moveTo(Appointment appointment, LocalDateTime appointmentDate) {
+        appointment.setAppointmentDate(appointmentDate);
+        appointment.setDate(java.sql.Date.valueOf(appointmentDate.toLocalDate()));
+        appointment.setTime(appointmentDate.toLocalTime().toString());
+        appointment.setSlotKey(Appointment.slotKey(appointment.getDoctor().getId(), appointmentDate));
+    }
+
+    private Lock stripeFor(Long doctorId) {
+        return stripes[Math.floorMod(Long.hashCode(doctorId), STRIPES)];
+    }
+
+    private static Lock[] createStripes() {
+        Lock[] locks = new Lock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
@@ -0,0 +1,9 @@
+package org.bydefault.smartclinic.services.appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal (appointment, doctor, time) view of an appointment, fetched without loading the entity graph.
+ */
+public record AppointmentSlot(Long appointmentId, Long doctorId, LocalDateTime appointmentDate) {
+}
@@ -21,6 +21,8 @@ public interface AuthUserServices {
 
     JwtResponse refreshToken(String refreshToken);
 
+    String logout(String accessToken, String refreshToken, HttpServletResponse response);
+
     String forgotPassword(ForgotPassword resetPasswordDto);
 
     ProfileDto updateProfile(ProfileDto profileDto, MultipartFile profileImage);
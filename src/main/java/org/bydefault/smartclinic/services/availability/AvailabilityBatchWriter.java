@@ -0,0 +1,154 @@
+package org.bydefault.smartclinic.services.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.repository.AvailabilityRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes availability slots with JDBC batch inserts.
+ * <p>
+ * Availability ids are generated by the database, so Hibernate cannot batch these inserts; going through
+ * JDBC turns thousands of slots into a handful of multi-row statements (with {@code rewriteBatchedStatements}).
+ * A batch that hits the {@code uk_availability_doctor_slot} constraint is replayed row by row, so only the slots
+ * that already exist are rejected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailabilityBatchWriter {
+
+    public static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO availability (day, time, date, is_available, slot_key, doctor_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailabilityRepository availabilityRepository;
+
+    /**
+     * Backfill slot keys for slots created before slot keys existed, a NULL key escapes the unique constraint
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void keyExistingSlots() {
+        List<AvailabilitySlot> unkeyed = availabilityRepository.findUnkeyedSlots();
+        Set<String> keyed = new HashSet<>();
+        int skipped = 0;
+        for (AvailabilitySlot slot : unkeyed) {
+            String slotKey = slot.slotKey();
+            if (!keyed.add(slot.doctorId() + "|" + slotKey)
+                    || availabilityRepository.existsByDoctorIdAndSlotKey(slot.doctorId(), slotKey)) {
+                skipped++;
+                continue;
+            }
+            availabilityRepository.claimSlotKey(slot.id(), slotKey);
+        }
+        if (!unkeyed.isEmpty()) {
+            log.info("Backfilled slot keys for {} existing availabilities, {} duplicate availabilities skipped",
+                    unkeyed.size() - skipped, skipped);
+        }
+    }
+
+    /**
+     * Insert the given slots of a doctor in one transaction and return them with their generated ids, in order.
+     * A slot rejected by the unique constraint comes back as {@code null}.
+     */
+    @Transactional
+    public List<AvailabilitySlot> insert(Long doctorId, List<AvailabilitySlot> slots) {
+        List<AvailabilitySlot> inserted = new ArrayList<>(slots.size());
+        for (int from = 0; from < slots.size(); from += BATCH_SIZE) {
+            List<AvailabilitySlot> batch = slots.subList(from, Math.min(from + BATCH_SIZE, slots.size()));
+            List<Long> ids;
+            try {
+                ids = insertBatch(doctorId, batch);
+            } catch (DuplicateKeyException e) {
+                // The rewritten multi-row INSERT fails as a whole and MySQL keeps the transaction, so retry row by row
+                ids = new ArrayList<>(batch.size());
+                for (AvailabilitySlot slot : batch) {
+                    ids.add(insertOne(doctorId, slot));
+                }
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                AvailabilitySlot slot = batch.get(i);
+                Long id = ids.get(i);
+                inserted.add(id == null ? null
+                        : new AvailabilitySlot(id, doctorId, slot.day(), slot.time(), slot.date(), slot.available()));
+            }
+        }
+        return inserted;
+    }
+
+    private List<Long> insertBatch(Long doctorId, List<AvailabilitySlot> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, doctorId, batch.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated ids but got " + keys.size());
+        }
+        List<Long> ids = new ArrayList<>(keys.size());
+        keys.forEach(key -> ids.add(((Number) key.values().iterator().next()).longValue()));
+        return ids;
+    }
+
+    /**
+     * Insert a single slot, returning its id or {@code null} when the slot already exists
+     */
+    private Long insertOne(Long doctorId, AvailabilitySlot slot) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+                bind(ps, doctorId, slot);
+                return ps;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+        return ((Number) keyHolder.getKeys().values().iterator().next()).longValue();
+    }
+
+    private static void bind(PreparedStatement ps, Long doctorId, AvailabilitySlot slot) throws SQLException {
+        ps.setString(1, slot.day() != null ? slot.day().name() : null);
+        ps.setString(2, slot.time());
+        if (slot.date() != null) {
+            ps.setTimestamp(3, new Timestamp(slot.date().getTime()));
+        } else {
+            ps.setNull(3, Types.TIMESTAMP);
+        }
+        ps.setBoolean(4, slot.available());
+        ps.setString(5, slot.slotKey());
+        ps.setLong(6, doctorId);
+    }
+}
@@ -0,0 +1,129 @@
+package org.bydefault.smartclinic.services.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.AvailabilityRule;
+import org.bydefault.smartclinic.entities.Day;
+import org.bydefault.smartclinic.repository.AvailabilityRuleRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory registry of the recurring availability rules of every doctor.
+ * <p>
+ * Rules are few per doctor, so they are kept as immutable snapshots and expanded lazily for the
+ * window a caller asks for, instead of materialising one availability row per slot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailabilityRuleRegistry {
+
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+
+    private final Map<Long, List<RecurringAvailability>> rulesByDoctor = new ConcurrentHashMap<>();
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<AvailabilityRule> rules = availabilityRuleRepository.findAllWithExclusions();
+        rulesByDoctor.clear();
+        rules.forEach(this::put);
+        log.info("Loaded {} recurring availability rules", rules.size());
+    }
+
+    public void put(AvailabilityRule rule) {
+        publish(RecurringAvailability.of(rule));
+    }
+
+    /**
+     * Snapshot the rule now and publish it once the surrounding transaction commits
+     */
+    public void putAfterCommit(AvailabilityRule rule) {
+        RecurringAvailability snapshot = RecurringAvailability.of(rule);
+        AfterCommit.run(() -> publish(snapshot));
+    }
+
+    public void removeAfterCommit(Long doctorId, Long ruleId) {
+        AfterCommit.run(() -> remove(doctorId, ruleId));
+    }
+
+    private void publish(RecurringAvailability snapshot) {
+        rulesByDoctor.compute(snapshot.doctorId(), (doctorId, rules) -> {
+            List<RecurringAvailability> updated = new ArrayList<>();
+            if (rules != null) {
+                rules.stream().filter(existing -> !existing.id().equals(snapshot.id())).forEach(updated::add);
+            }
+            updated.add(snapshot);
+            return List.copyOf(updated);
+        });
+    }
+
+    public void remove(Long doctorId, Long ruleId) {
+        rulesByDoctor.computeIfPresent(doctorId, (id, rules) -> {
+            List<RecurringAvailability> updated = rules.stream().filter(rule -> !rule.id().equals(ruleId)).toList();
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    public List<RecurringAvailability> findByDoctor(Long doctorId) {
+        return rulesByDoctor.getOrDefault(doctorId, List.of());
+    }
+
+    /**
+     * Lazily expand all slots of a doctor's rules in [from, to), in time order
+     */
+    public Stream<LocalDateTime> expand(Long doctorId, LocalDate from, LocalDate to) {
+        List<RecurringAvailability> rules = findByDoctor(doctorId);
+        if (rules.isEmpty()) {
+            return Stream.empty();
+        }
+        return from.datesUntil(to)
+                .flatMap(date -> rules.stream()
+                        .flatMap(rule -> rule.slotsOn(date))
+                        .distinct()
+                        .sorted()
+                        .map(date::atTime));
+    }
+
+    /**
+     * Ids of the doctors whose rules produce a slot starting at the given day of the week and time
+     */
+    public Set<Long> findDoctorIds(Day day, LocalTime time) {
+        LocalDate today = LocalDate.now();
+        Set<Long> doctorIds = new HashSet<>();
+        rulesByDoctor.forEach((doctorId, rules) -> {
+            boolean matches = rules.stream().anyMatch(rule -> rule.appliesOn(day)
+                    && rule.startsAt(time)
+                    && (rule.validUntil() == null || !rule.validUntil().isBefore(today)));
+            if (matches) {
+                doctorIds.add(doctorId);
+            }
+        });
+        return doctorIds;
+    }
+
+    /**
+     * Ids of the doctors whose rules produce at least one slot on the given date
+     */
+    public Set<Long> findDoctorIds(LocalDate date) {
+        Set<Long> doctorIds = new HashSet<>();
+        rulesByDoctor.forEach((doctorId, rules) -> {
+            if (rules.stream().anyMatch(rule -> rule.slotsOn(date).findAny().isPresent())) {
+                doctorIds.add(doctorId);
+            }
+        });
+        return doctorIds;
+    }
+}
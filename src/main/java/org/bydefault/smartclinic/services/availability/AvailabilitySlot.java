@@ -0,0 +1,56 @@
+package org.bydefault.smartclinic.services.availability;
+
+import org.bydefault.smartclinic.entities.Availability;
+import org.bydefault.smartclinic.entities.Day;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/**
+ * Lightweight, immutable view of an {@link Availability} row used by the in-memory indexes.
+ */
+public record AvailabilitySlot(Long id, Long doctorId, Day day, String time, Date date, boolean available) {
+
+    public static AvailabilitySlot of(Availability availability) {
+        return new AvailabilitySlot(
+                availability.getId(),
+                availability.getDoctor().getId(),
+                availability.getDay(),
+                availability.getTime(),
+                availability.getDate(),
+                availability.isAvailable());
+    }
+
+    /**
+     * Minute of the day of this slot, or -1 when the stored time cannot be parsed
+     */
+    public int minuteOfDay() {
+        LocalTime localTime = localTime();
+        return localTime == null ? -1 : localTime.getHour() * 60 + localTime.getMinute();
+    }
+
+    public LocalTime localTime() {
+        if (time == null || time.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(time.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Identity of this slot, as stored in the {@code slot_key} column
+     */
+    public String slotKey() {
+        return Availability.slotKeyOf(day, time, date);
+    }
+
+    public LocalDate localDate() {
+        // java.sql.Date/Timestamp do not support toInstant(), so go through the epoch millis
+        return date == null ? null : new java.sql.Date(date.getTime()).toLocalDate();
+    }
+}
@@ -0,0 +1,188 @@
+package org.bydefault.smartclinic.services.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.Availability;
+import org.bydefault.smartclinic.entities.Day;
+import org.bydefault.smartclinic.repository.AvailabilityRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process index of doctor availability slots.
+ * <p>
+ * Slots are indexed by (day, minute of day), by date and by doctor so that the
+ * "who is free on Monday at 10:00" style lookups never reach the database.
+ * The index is loaded once at startup and kept current by the availability write paths.
+ * Reads are lock-free, writes are serialised on the index itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailabilitySlotIndex {
+
+    private final AvailabilityRepository availabilityRepository;
+
+    private final Map<Long, AvailabilitySlot> slotsById = new ConcurrentHashMap<>();
+    private final Map<DayMinute, Set<Long>> slotsByDayAndMinute = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Set<Long>> slotsByDate = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> slotsByDoctor = new ConcurrentHashMap<>();
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<AvailabilitySlot> slots = availabilityRepository.findAllSlots();
+        synchronized (this) {
+            clear();
+            slots.forEach(this::add);
+        }
+        log.info("Availability slot index loaded with {} slots", slots.size());
+    }
+
+    public void put(Availability availability) {
+        put(AvailabilitySlot.of(availability));
+    }
+
+    public synchronized void put(AvailabilitySlot slot) {
+        remove(slot.id());
+        add(slot);
+    }
+
+    public synchronized void remove(Long availabilityId) {
+        AvailabilitySlot previous = slotsById.remove(availabilityId);
+        if (previous == null) {
+            return;
+        }
+        int minute = previous.minuteOfDay();
+        if (previous.day() != null && minute >= 0) {
+            detach(slotsByDayAndMinute, new DayMinute(previous.day(), minute), availabilityId);
+        }
+        LocalDate date = previous.localDate();
+        if (date != null) {
+            detach(slotsByDate, date, availabilityId);
+        }
+        detach(slotsByDoctor, previous.doctorId(), availabilityId);
+    }
+
+    /**
+     * Ids of the doctors with an open slot on the given day of the week and time
+     */
+    public List<Long> findDoctorIds(Day day, LocalTime time) {
+        Set<Long> slotIds = slotsByDayAndMinute.get(new DayMinute(day, time.getHour() * 60 + time.getMinute()));
+        return availableDoctorIds(slotIds);
+    }
+
+    /**
+     * Ids of the doctors with at least one open slot on the given date
+     */
+    public List<Long> findDoctorIds(LocalDate date) {
+        return availableDoctorIds(slotsByDate.get(date));
+    }
+
+    /**
+     * Check whether a doctor has at least one open slot on the given date
+     */
+    public boolean hasAvailability(Long doctorId, LocalDate date) {
+        Set<Long> slotIds = slotsByDate.get(date);
+        if (slotIds == null) {
+            return false;
+        }
+        for (Long slotId : slotIds) {
+            AvailabilitySlot slot = slotsById.get(slotId);
+            if (slot != null && slot.available() && slot.doctorId().equals(doctorId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All indexed slots of a doctor, open or not
+     */
+    public List<AvailabilitySlot> findByDoctor(Long doctorId) {
+        Set<Long> slotIds = slotsByDoctor.get(doctorId);
+        if (slotIds == null) {
+            return List.of();
+        }
+        List<AvailabilitySlot> slots = new ArrayList<>(slotIds.size());
+        for (Long slotId : slotIds) {
+            AvailabilitySlot slot = slotsById.get(slotId);
+            if (slot != null) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Ids of all doctors with at least one indexed slot
+     */
+    public Set<Long> doctorIds() {
+        return Set.copyOf(slotsByDoctor.keySet());
+    }
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    private List<Long> availableDoctorIds(Set<Long> slotIds) {
+        if (slotIds == null || slotIds.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> doctorIds = new LinkedHashSet<>();
+        for (Long slotId : slotIds) {
+            AvailabilitySlot slot = slotsById.get(slotId);
+            if (slot != null && slot.available()) {
+                doctorIds.add(slot.doctorId());
+            }
+        }
+        return List.copyOf(doctorIds);
+    }
+
+    private void add(AvailabilitySlot slot) {
+        if (slot.id() == null || slot.doctorId() == null) {
+            return;
+        }
+        slotsById.put(slot.id(), slot);
+        int minute = slot.minuteOfDay();
+        if (slot.day() != null && minute >= 0) {
+            attach(slotsByDayAndMinute, new DayMinute(slot.day(), minute), slot.id());
+        } else if (slot.time() != null) {
+            log.warn("Availability {} has an unparseable time '{}', skipping day/time index", slot.id(), slot.time());
+        }
+        LocalDate date = slot.localDate();
+        if (date != null) {
+            attach(slotsByDate, date, slot.id());
+        }
+        attach(slotsByDoctor, slot.doctorId(), slot.id());
+    }
+
+    private void clear() {
+        slotsById.clear();
+        slotsByDayAndMinute.clear();
+        slotsByDate.clear();
+        slotsByDoctor.clear();
+    }
+
+    private static <K> void attach(Map<K, Set<Long>> index, K key, Long slotId) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(slotId);
+    }
+
+    private static <K> void detach(Map<K, Set<Long>> index, K key, Long slotId) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(slotId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private record DayMinute(Day day, int minute) {
+    }
+}
@@ -0,0 +1,84 @@
+package org.bydefault.smartclinic.services.availability;
+
+import org.bydefault.smartclinic.entities.AvailabilityRule;
+import org.bydefault.smartclinic.entities.AvailabilityRuleExclusion;
+import org.bydefault.smartclinic.entities.Day;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Immutable snapshot of an {@link AvailabilityRule} and its exclusions, able to expand itself into slots.
+ */
+public record RecurringAvailability(Long id,
+                                    Long doctorId,
+                                    int daysMask,
+                                    LocalTime startTime,
+                                    LocalTime endTime,
+                                    int slotMinutes,
+                                    LocalDate validFrom,
+                                    LocalDate validUntil,
+                                    Set<LocalDate> excludedDays,
+                                    Map<LocalDate, Set<LocalTime>> excludedSlots) {
+
+    public static RecurringAvailability of(AvailabilityRule rule) {
+        Set<LocalDate> excludedDays = new HashSet<>();
+        Map<LocalDate, Set<LocalTime>> excludedSlots = new HashMap<>();
+        for (AvailabilityRuleExclusion exclusion : rule.getExclusions()) {
+            if (exclusion.getStartTime() == null) {
+                excludedDays.add(exclusion.getDate());
+            } else {
+                excludedSlots.computeIfAbsent(exclusion.getDate(), date -> new HashSet<>()).add(exclusion.getStartTime());
+            }
+        }
+        return new RecurringAvailability(rule.getId(), rule.getDoctor().getId(), rule.getDaysMask(),
+                rule.getStartTime(), rule.getEndTime(), rule.getSlotMinutes(), rule.getValidFrom(), rule.getValidUntil(),
+                Set.copyOf(excludedDays), Map.copyOf(excludedSlots));
+    }
+
+    public boolean appliesOn(Day day) {
+        return (daysMask & (1 << day.ordinal())) != 0;
+    }
+
+    /**
+     * Check whether the rule produces slots on the given date, ignoring single-slot exclusions
+     */
+    public boolean appliesOn(LocalDate date) {
+        return !date.isBefore(validFrom)
+                && (validUntil == null || !date.isAfter(validUntil))
+                && appliesOn(Day.valueOf(date.getDayOfWeek().name()))
+                && !excludedDays.contains(date);
+    }
+
+    /**
+     * Check whether a slot starts at the given time on every day the rule applies to
+     */
+    public boolean startsAt(LocalTime time) {
+        return !time.isBefore(startTime)
+                && fits(time)
+                && Duration.between(startTime, time).toMinutes() % slotMinutes == 0;
+    }
+
+    /**
+     * Lazily expand the slot start times of the given date
+     */
+    public Stream<LocalTime> slotsOn(LocalDate date) {
+        if (!appliesOn(date)) {
+            return Stream.empty();
+        }
+        Set<LocalTime> removed = excludedSlots.getOrDefault(date, Set.of());
+        return Stream.iterate(startTime, this::fits, time -> time.plusMinutes(slotMinutes))
+                .filter(time -> !removed.contains(time));
+    }
+
+    /**
+     * A slot fits when it ends by the rule's end time without wrapping past midnight
+     */
+    private boolean fits(LocalTime start) {
+        LocalTime end = start.plusMinutes(slotMinutes);
+        return !end.isBefore(start) && !end.isAfter(endTime);
+    }
+}
@@ -0,0 +1,352 @@
+package org.bydefault.smartclinic.services.calendar;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+import org.bydefault.smartclinic.entities.CalendarCell;
+import org.bydefault.smartclinic.repository.AppointmentRepository;
+import org.bydefault.smartclinic.services.appointment.AppointmentSlot;
+import org.bydefault.smartclinic.services.availability.AvailabilityRuleRegistry;
+import org.bydefault.smartclinic.services.availability.AvailabilitySlot;
+import org.bydefault.smartclinic.services.availability.AvailabilitySlotIndex;
+import org.bydefault.smartclinic.services.availability.RecurringAvailability;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-doctor calendar kept as bitmaps.
+ * <p>
+ * A day is split into {@link #SLOTS_PER_DAY} slots of {@link #SLOT_MINUTES} minutes, so one {@code long}
+ * holds the open slots of a doctor's day and another one the booked slots. Free/busy checks are a couple of
+ * bit operations, and the earliest free slot is found with {@link Long#numberOfTrailingZeros(long)}.
+ * Open slots are derived from the {@link AvailabilitySlotIndex} and, on the fly, from the weekly slots of that index
+ * and the recurring rules of the {@link AvailabilityRuleRegistry}; booked slots are maintained by the appointment
+ * write paths. Days that have passed are pruned by a daily sweep.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoctorCalendar {
+
+    public static final int SLOT_MINUTES = CalendarCell.MINUTES;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    // How far ahead "earliest free slot" searches look
+    public static final int SEARCH_HORIZON_DAYS = 90;
+
+    private static final List<AppointmentStatus> ACTIVE_STATUSES = List.of(AppointmentStatus.PENDING, AppointmentStatus.ACCEPTED);
+
+    private final AvailabilitySlotIndex availabilitySlotIndex;
+    private final AvailabilityRuleRegistry availabilityRuleRegistry;
+    private final AppointmentRepository appointmentRepository;
+
+    private final Map<Long, Map<LocalDate, DayMask>> calendars = new ConcurrentHashMap<>();
+    // Doctor id -> open slots of the weekly (undated) availabilities, indexed by day of the week
+    private final Map<Long, long[]> weeklySlots = new ConcurrentHashMap<>();
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        calendars.clear();
+        for (AppointmentSlot appointment : appointmentRepository.findActiveSlots(LocalDate.now().atStartOfDay(), ACTIVE_STATUSES)) {
+            book(appointment.doctorId(), appointment.appointmentDate());
+        }
+        availabilitySlotIndex.doctorIds().forEach(this::refreshAvailability);
+        log.info("Doctor calendar loaded for {} doctors", calendars.size());
+    }
+
+    /**
+     * Rebuild the open slots of a doctor from the availability index
+     */
+    public void refreshAvailability(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Long> openSlots = new HashMap<>();
+        long[] weekly = new long[DayOfWeek.values().length];
+        boolean hasWeekly = false;
+        for (AvailabilitySlot slot : availabilitySlotIndex.findByDoctor(doctorId)) {
+            LocalDate date = slot.localDate();
+            int minute = slot.minuteOfDay();
+            if (!slot.available() || minute < 0) {
+                continue;
+            }
+            // Weekly slots are projected onto the days they fall on when the calendar is read
+            if (date == null) {
+                if (slot.day() != null) {
+                    weekly[slot.day().ordinal()] |= bit(minute);
+                    hasWeekly = true;
+                }
+                continue;
+            }
+            // Past days can no longer be booked, so they are not kept in the calendar
+            if (!date.isBefore(today)) {
+                openSlots.merge(date, bit(minute), (a, b) -> a | b);
+            }
+        }
+        if (hasWeekly) {
+            weeklySlots.put(doctorId, weekly);
+        } else {
+            weeklySlots.remove(doctorId);
+        }
+        Map<LocalDate, DayMask> calendar = calendarOf(doctorId);
+        for (LocalDate date : calendar.keySet()) {
+            if (!openSlots.containsKey(date)) {
+                calendar.computeIfPresent(date, (key, mask) -> emptyToNull(mask.withAvailable(0L)));
+            }
+        }
+        openSlots.forEach((date, bits) ->
+                calendar.compute(date, (key, mask) -> mask == null ? new DayMask(bits, 0L) : mask.withAvailable(bits)));
+    }
+
+    public void book(Long doctorId, LocalDateTime start) {
+        long bit = bit(minuteOfDay(start.toLocalTime()));
+        calendarOf(doctorId).compute(start.toLocalDate(), (key, mask) -> mask == null
+                ? new DayMask(0L, bit)
+                : mask.withBooked(mask.booked() | bit));
+    }
+
+    public void release(Long doctorId, LocalDateTime start) {
+        long bit = bit(minuteOfDay(start.toLocalTime()));
+        calendarOf(doctorId).computeIfPresent(start.toLocalDate(),
+                (key, mask) -> emptyToNull(mask.withBooked(mask.booked() & ~bit)));
+    }
+
+    /**
+     * Check whether the slot containing the given time is open and not booked
+     */
+    public boolean isFree(Long doctorId, LocalDateTime start) {
+        return (freeMask(doctorId, start.toLocalDate()) & bit(minuteOfDay(start.toLocalTime()))) != 0;
+    }
+
+    /**
+     * Bitmap of the free slots of a doctor's day, bit {@code i} being the slot starting at {@code i * SLOT_MINUTES}
+     */
+    public long freeMask(Long doctorId, LocalDate date) {
+        DayMask mask = dayOf(doctorId, date);
+        long available = ruleMask(doctorId, date) | weeklyMask(doctorId, date) | (mask == null ? 0L : mask.available());
+        return mask == null ? available : available & ~mask.booked();
+    }
+
+    /**
+     * Bitmap of the slots opened by the recurring rules of a doctor on the given date
+     */
+    public long ruleMask(Long doctorId, LocalDate date) {
+        if (date.isBefore(LocalDate.now())) {
+            return 0L;
+        }
+        long bits = 0L;
+        for (RecurringAvailability rule : availabilityRuleRegistry.findByDoctor(doctorId)) {
+            bits |= rule.slotsOn(date).mapToLong(time -> bit(minuteOfDay(time))).reduce(0L, (a, b) -> a | b);
+        }
+        return bits;
+    }
+
+    /**
+     * Bitmap of the slots opened by the weekly availabilities of a doctor on the given date
+     */
+    public long weeklyMask(Long doctorId, LocalDate date) {
+        long[] weekly = weeklySlots.get(doctorId);
+        if (weekly == null || date.isBefore(LocalDate.now())) {
+            return 0L;
+        }
+        // Day is declared in DayOfWeek order, Monday first
+        return weekly[date.getDayOfWeek().ordinal()];
+    }
+
+    /**
+     * Drop the days that have passed, they can no longer be booked or released
+     */
+    @Scheduled(cron = "${app.calendar.prune-cron:0 5 0 * * *}")
+    public void prune() {
+        LocalDate today = LocalDate.now();
+        int pruned = 0;
+        for (Map<LocalDate, DayMask> calendar : calendars.values()) {
+            Iterator<LocalDate> dates = calendar.keySet().iterator();
+            while (dates.hasNext()) {
+                if (dates.next().isBefore(today)) {
+                    dates.remove();
+                    pruned++;
+                }
+            }
+        }
+        log.debug("Doctor calendar pruned {} past days", pruned);
+    }
+
+    public long busyMask(Long doctorId, LocalDate date) {
+        DayMask mask = dayOf(doctorId, date);
+        return mask == null ? 0L : mask.booked();
+    }
+
+    /**
+     * Earliest free slot of a doctor starting at or after the given time, within the search horizon
+     */
+    public Optional<LocalDateTime> earliestFreeSlot(Long doctorId, LocalDateTime from) {
+        LocalDate date = from.toLocalDate();
+        // The slot containing "from" has already started unless "from" is exactly on a slot boundary
+        int firstSlot = (minuteOfDay(from.toLocalTime()) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        for (int day = 0; day < SEARCH_HORIZON_DAYS; day++, date = date.plusDays(1)) {
+            long free = freeMask(doctorId, date);
+            if (day == 0) {
+                free &= firstSlot >= SLOTS_PER_DAY ? 0L : -1L << firstSlot;
+            }
+            if (free != 0) {
+                return Optional.of(date.atTime(slotStart(Long.numberOfTrailingZeros(free))));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The earliest free (doctor, slot) pairs across the given doctors within [from, to).
+     * <p>
+     * Each doctor contributes a lazy, time-ordered stream of free slots; the streams are merged through a
+     * priority queue so that only as many slots as requested are ever materialised.
+     */
+    public List<FreeSlot> earliestFreeSlots(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to, int limit) {
+        PriorityQueue<FreeSlotCursor> queue = new PriorityQueue<>(Math.max(1, doctorIds.size()));
+        for (Long doctorId : doctorIds) {
+            FreeSlotCursor cursor = new FreeSlotCursor(doctorId, from, to);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        List<FreeSlot> slots = new ArrayList<>(limit);
+        while (slots.size() < limit && !queue.isEmpty()) {
+            FreeSlotCursor cursor = queue.poll();
+            slots.add(new FreeSlot(cursor.doctorId, cursor.current));
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Bitmap of the slots starting within [from, to), a null bound leaving that side open
+     */
+    public static long windowMask(LocalTime from, LocalTime to) {
+        int first = from == null ? 0 : (minuteOfDay(from) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        int end = to == null ? SLOTS_PER_DAY : (minuteOfDay(to) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        if (first >= end) {
+            return 0L;
+        }
+        // Bits past the last slot of the day stay clear, so the mask never names a slot beyond midnight
+        long upTo = (1L << Math.min(end, SLOTS_PER_DAY)) - 1;
+        return upTo & (-1L << first);
+    }
+
+    public static List<LocalTime> slotTimes(long mask) {
+        List<LocalTime> times = new ArrayList<>(Long.bitCount(mask));
+        while (mask != 0) {
+            times.add(slotStart(Long.numberOfTrailingZeros(mask)));
+            mask &= mask - 1;
+        }
+        return times;
+    }
+
+    /**
+     * Start of the cell the given time falls into
+     */
+    public static LocalDateTime cellStart(LocalDateTime time) {
+        return CalendarCell.startOf(time);
+    }
+
+    public static LocalTime slotStart(int slot) {
+        return LocalTime.MIDNIGHT.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    private Map<LocalDate, DayMask> calendarOf(Long doctorId) {
+        return calendars.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>());
+    }
+
+    private DayMask dayOf(Long doctorId, LocalDate date) {
+        Map<LocalDate, DayMask> calendar = calendars.get(doctorId);
+        return calendar == null ? null : calendar.get(date);
+    }
+
+    private static DayMask emptyToNull(DayMask mask) {
+        return mask.isEmpty() ? null : mask;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static long bit(int minuteOfDay) {
+        return 1L << (minuteOfDay / SLOT_MINUTES);
+    }
+
+    public record FreeSlot(Long doctorId, LocalDateTime start) {
+    }
+
+    /**
+     * Walks the free slots of one doctor in time order, one day bitmap at a time
+     */
+    private final class FreeSlotCursor implements Comparable<FreeSlotCursor> {
+        private final Long doctorId;
+        private final LocalDateTime to;
+        private final LocalDate lastDate;
+        private LocalDate date;
+        private long pending;
+        private LocalDateTime current;
+
+        private FreeSlotCursor(Long doctorId, LocalDateTime from, LocalDateTime to) {
+            this.doctorId = doctorId;
+            this.to = to;
+            this.date = from.toLocalDate();
+            LocalDate horizon = date.plusDays(SEARCH_HORIZON_DAYS - 1);
+            this.lastDate = to.toLocalDate().isAfter(horizon) ? horizon : to.toLocalDate();
+            int firstSlot = (minuteOfDay(from.toLocalTime()) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            this.pending = freeMask(doctorId, date) & (firstSlot >= SLOTS_PER_DAY ? 0L : -1L << firstSlot);
+        }
+
+        private boolean advance() {
+            while (pending == 0) {
+                if (!date.isBefore(lastDate)) {
+                    return false;
+                }
+                date = date.plusDays(1);
+                pending = freeMask(doctorId, date);
+            }
+            LocalDateTime next = date.atTime(slotStart(Long.numberOfTrailingZeros(pending)));
+            pending &= pending - 1;
+            if (!next.isBefore(to)) {
+                pending = 0;
+                date = lastDate;
+                return false;
+            }
+            current = next;
+            return true;
+        }
+
+        @Override
+        public int compareTo(FreeSlotCursor other) {
+            int byTime = current.compareTo(other.current);
+            return byTime != 0 ? byTime : doctorId.compareTo(other.doctorId);
+        }
+    }
+
+    private record DayMask(long available, long booked) {
+
+        boolean isEmpty() {
+            return available == 0L && booked == 0L;
+        }
+
+        DayMask withAvailable(long available) {
+            return new DayMask(available, booked);
+        }
+
+        DayMask withBooked(long booked) {
+            return new DayMask(available, booked);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.bydefault.smartclinic.services.catalog;
+
+import org.bydefault.smartclinic.entities.Specialty;
+
+/**
+ * Immutable copy of a {@link Specialty} held by the {@link SpecialtyCatalog}
+ */
+public record CachedSpecialty(Long id, String name, String description) {
+
+    public static CachedSpecialty of(Specialty specialty) {
+        return new CachedSpecialty(specialty.getId(), specialty.getName(), specialty.getDescription());
+    }
+}
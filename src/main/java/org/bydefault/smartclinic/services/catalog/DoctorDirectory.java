@@ -0,0 +1,162 @@
+package org.bydefault.smartclinic.services.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.dtos.common.CacheStatsDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.repository.DoctorRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Materialised directory of the accepted doctors, kept as ready-to-send JSON.
+ * <p>
+ * Each doctor is serialised once into its own fragment; a change re-reads and re-serialises only the doctor
+ * concerned and splices the fragments into a new immutable {@link Snapshot}. The snapshot carries an ETag
+ * derived from its content, so clients revalidating an unchanged directory get a 304 without a body.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoctorDirectory {
+
+    public static final String NAME = "doctor-directory";
+    private static final byte[] EMPTY = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final DoctorRepository doctorRepository;
+    private final ObjectMapper objectMapper;
+
+    // Doctor id -> JSON fragment, in id order, guarded by this
+    private final Map<Long, byte[]> fragments = new TreeMap<>();
+    private long version;
+
+    private volatile Snapshot snapshot = new Snapshot(0, 0, EMPTY, etagOf(EMPTY));
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<DoctorListItemDto> doctors = doctorRepository.findListItemsByAccepted(true);
+        synchronized (this) {
+            fragments.clear();
+            doctors.forEach(doctor -> fragments.put(doctor.getId(), serialize(doctor)));
+            publish();
+        }
+        log.info("Doctor directory loaded with {} doctors", doctors.size());
+    }
+
+    public Snapshot snapshot() {
+        reads.increment();
+        return snapshot;
+    }
+
+    /**
+     * Re-read one doctor once the current transaction commits, dropping it when no longer accepted
+     */
+    public void refreshAfterCommit(Long doctorId) {
+        refreshAfterCommit(List.of(doctorId));
+    }
+
+    /**
+     * Re-read several doctors with a single query once the current transaction commits
+     */
+    public void refreshAfterCommit(Collection<Long> doctorIds) {
+        List<Long> ids = List.copyOf(doctorIds);
+        AfterCommit.run(() -> refresh(ids));
+    }
+
+    public void removeAfterCommit(Long doctorId) {
+        AfterCommit.run(() -> remove(doctorId));
+    }
+
+    public void refresh(Long doctorId) {
+        refresh(List.of(doctorId));
+    }
+
+    /**
+     * Read and splice under the same lock, so concurrent refreshes publish in the order they read
+     */
+    public synchronized void refresh(Collection<Long> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            return;
+        }
+        Map<Long, DoctorListItemDto> rows = new HashMap<>();
+        doctorRepository.findListItemsByIdIn(doctorIds).forEach(row -> rows.put(row.getId(), row));
+        boolean changed = false;
+        for (Long doctorId : doctorIds) {
+            DoctorListItemDto row = rows.get(doctorId);
+            if (row != null && row.isAccepted()) {
+                fragments.put(doctorId, serialize(row));
+                changed = true;
+            } else if (fragments.remove(doctorId) != null) {
+                changed = true;
+            }
+        }
+        if (changed) {
+            publish();
+        }
+    }
+
+    public synchronized void remove(Long doctorId) {
+        if (fragments.remove(doctorId) != null) {
+            publish();
+        }
+    }
+
+    public CacheStatsDto stats() {
+        // The directory is materialised, every read is served from memory
+        return new CacheStatsDto(NAME, snapshot.size(), reads.sum(), 0, 1.0, updates.sum());
+    }
+
+    private void publish() {
+        int length = 2 + Math.max(0, fragments.size() - 1);
+        for (byte[] fragment : fragments.values()) {
+            length += fragment.length;
+        }
+        byte[] json = new byte[length];
+        int position = 0;
+        json[position++] = '[';
+        for (byte[] fragment : fragments.values()) {
+            if (position > 1) {
+                json[position++] = ',';
+            }
+            System.arraycopy(fragment, 0, json, position, fragment.length);
+            position += fragment.length;
+        }
+        json[position] = ']';
+        snapshot = new Snapshot(++version, fragments.size(), json, etagOf(json));
+        updates.increment();
+    }
+
+    private byte[] serialize(DoctorListItemDto doctor) {
+        try {
+            return objectMapper.writeValueAsBytes(doctor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise doctor " + doctor.getId(), e);
+        }
+    }
+
+    private static String etagOf(byte[] json) {
+        return "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+
+    /**
+     * Directory content at a given version, never modified once published
+     */
+    public record Snapshot(long version, int size, byte[] json, String etag) {
+    }
+}
@@ -0,0 +1,125 @@
+package org.bydefault.smartclinic.services.catalog;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.dtos.common.CacheStatsDto;
+import org.bydefault.smartclinic.repository.SpecialtyRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of the specialty catalog.
+ * <p>
+ * The whole catalog is loaded on first use into an immutable snapshot indexed by id and by normalised name.
+ * Admin changes drop the snapshot once their transaction commits and the next lookup loads a fresh one, so
+ * lookups only reach the database right after the catalog changed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpecialtyCatalog {
+
+    public static final String NAME = "specialties";
+
+    private final SpecialtyRepository specialtyRepository;
+
+    private volatile Snapshot snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public Optional<CachedSpecialty> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    /**
+     * Specialty whose name equals the given one ignoring case, or else the first one, by id, whose name contains it
+     */
+    public Optional<CachedSpecialty> findByName(String name) {
+        String normalized = normalize(name);
+        Snapshot current = snapshot();
+        CachedSpecialty exact = current.byName().get(normalized);
+        if (exact != null || normalized.isEmpty()) {
+            return Optional.ofNullable(exact);
+        }
+        return current.all().stream()
+                .filter(specialty -> normalize(specialty.name()).contains(normalized))
+                .findFirst();
+    }
+
+    /**
+     * All specialties ordered by id
+     */
+    public List<CachedSpecialty> findAll() {
+        return snapshot().all();
+    }
+
+    /**
+     * Drop the catalog once the current transaction commits, or right away outside of one
+     */
+    public void invalidateAfterCommit() {
+        AfterCommit.run(this::invalidate);
+    }
+
+    public synchronized void invalidate() {
+        snapshot = null;
+        invalidations.increment();
+    }
+
+    public CacheStatsDto stats() {
+        Snapshot current = snapshot;
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new CacheStatsDto(NAME, current == null ? 0 : current.all().size(), hitCount, missCount,
+                requests == 0 ? 0.0 : (double) hitCount / requests, invalidations.sum());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+        // Only one thread loads, the others wait for its result
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                misses.increment();
+                current = load();
+                snapshot = current;
+            } else {
+                hits.increment();
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load() {
+        List<CachedSpecialty> all = specialtyRepository.findAll().stream()
+                .map(CachedSpecialty::of)
+                .sorted(Comparator.comparing(CachedSpecialty::id))
+                .toList();
+        Map<Long, CachedSpecialty> byId = all.stream()
+                .collect(Collectors.toUnmodifiableMap(CachedSpecialty::id, Function.identity()));
+        Map<String, CachedSpecialty> byName = all.stream()
+                .collect(Collectors.toUnmodifiableMap(specialty -> normalize(specialty.name()), Function.identity(),
+                        (first, second) -> first));
+        log.debug("Specialty catalog loaded with {} specialties", all.size());
+        return new Snapshot(byId, byName, all);
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<Long, CachedSpecialty> byId, Map<String, CachedSpecialty> byName,
+                            List<CachedSpecialty> all) {
+    }
+}
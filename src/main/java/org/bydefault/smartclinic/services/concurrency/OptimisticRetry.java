@@ -0,0 +1,64 @@
+package org.bydefault.smartclinic.services.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an idempotent write in its own transaction and retries it a bounded number of times when it loses an
+ * optimistic-locking race.
+ * <p>
+ * Each attempt re-reads the state it acts on, so a retry either applies the transition to the fresh state or
+ * fails its validation. Only use it for operations whose outcome does not depend on the state the caller saw,
+ * such as accepting or cancelling an appointment; the last conflict is rethrown and surfaces as a 409.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    public static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MILLIS = 5;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Every attempt needs a fresh transaction, a rolled back one cannot be reused
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("Giving up after {} conflicting attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                log.debug("Optimistic locking conflict on attempt {}, retrying", attempt);
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean backOff(int attempt) {
+        // Jittered so that the competing requests do not collide again on the next attempt
+        long millis = BASE_BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS);
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.bydefault.smartclinic.services.doctor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a filtered doctor listing, the id of the last doctor returned.
+ * Clients see it as an opaque string, like the inbox cursor.
+ */
+public record DoctorCursor(Long doctorId) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(doctorId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DoctorCursor decode(String cursor) {
+        try {
+            return new DoctorCursor(Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -2,16 +2,33 @@ package org.bydefault.smartclinic.services.doctor;
 
 import org.bydefault.smartclinic.dtos.common.AppointmentDto;
 import org.bydefault.smartclinic.dtos.common.AvailabilityDto;
+import org.bydefault.smartclinic.dtos.common.AvailableSlotDto;
+import org.bydefault.smartclinic.dtos.common.CalendarDayDto;
 import org.bydefault.smartclinic.dtos.common.DoctorDto;
+import org.bydefault.smartclinic.dtos.common.KeysetPageDto;
 import org.bydefault.smartclinic.dtos.common.MedicalReportDto;
+import org.bydefault.smartclinic.dtos.common.NearbyDoctorDto;
+import org.bydefault.smartclinic.dtos.common.SuggestionDto;
+import org.bydefault.smartclinic.dtos.doctor.AppointmentInboxItemDto;
+import org.bydefault.smartclinic.dtos.doctor.AvailabilityRuleDto;
+import org.bydefault.smartclinic.dtos.doctor.AvailabilityRuleExclusionDto;
+import org.bydefault.smartclinic.dtos.doctor.BulkAvailabilityResultDto;
 import org.bydefault.smartclinic.dtos.doctor.DoctorApplicationDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorDashboardDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorLocationDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorSummaryDto;
 import org.bydefault.smartclinic.dtos.doctor.MedicalReportRequestDto;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 public interface DoctorServices {
     DoctorApplicationDto submitApplication(
@@ -21,10 +38,16 @@ public interface DoctorServices {
             MultipartFile shortVideo
     );
 
+    DoctorDto updateLocation(DoctorLocationDto locationDto);
+
     AvailabilityDto addAvailability(
             AvailabilityDto availabilityDto
     );
 
+    BulkAvailabilityResultDto addAvailabilities(
+            List<AvailabilityDto> availabilityDtos
+    );
+
     AvailabilityDto updateAvailability(
             Long availabilityId,
             AvailabilityDto availabilityDto
@@ -40,20 +63,68 @@ public interface DoctorServices {
 
     List<AvailabilityDto> getAvailabilityByDoctor(Long doctorId);
 
-    List<DoctorDto> getAllDoctorsByAvailability(
+    AvailabilityRuleDto addAvailabilityRule(AvailabilityRuleDto availabilityRuleDto);
+
+    List<AvailabilityRuleDto> getAvailabilityRules();
+
+    String deleteAvailabilityRule(Long ruleId);
+
+    AvailabilityRuleDto addAvailabilityRuleExclusion(Long ruleId, AvailabilityRuleExclusionDto exclusionDto);
+
+    List<LocalDateTime> getRecurringSlots(Long doctorId, LocalDate from, int days);
+
+    List<CalendarDayDto> getDoctorCalendar(Long doctorId, LocalDate from, int days);
+
+    AvailableSlotDto getEarliestFreeSlot(Long doctorId, LocalDateTime from);
+
+    List<AvailableSlotDto> getEarliestSlotsBySpecialty(
+            String specialtyName,
+            String location,
+            LocalDateTime from,
+            LocalDateTime to,
+            int limit
+    );
+
+    List<DoctorListItemDto> getAllDoctorsByAvailability(
             String day,
             LocalTime time
     );
 
-    List<DoctorDto> getAllDoctorsBySpecialty(
+    List<DoctorListItemDto> getAllDoctorsBySpecialty(
             String specialtyName
     );
 
-    List<DoctorDto> getAllDoctorsByLocation(
+    List<DoctorListItemDto> getAllDoctorsByLocation(
             String location
     );
 
-    List<DoctorDto> getAllDoctorsByDate(LocalDate date);
+    List<DoctorListItemDto> getAllDoctorsByDate(LocalDate date);
+
+    Page<DoctorSummaryDto> searchDoctors(String query, int page, int size);
+
+    List<SuggestionDto> suggest(String prefix, int limit);
+
+    List<NearbyDoctorDto> findNearbyDoctors(
+            double latitude,
+            double longitude,
+            double radiusKm,
+            int limit,
+            String specialtyName,
+            LocalDate availableOn
+    );
+
+    KeysetPageDto<DoctorListItemDto> filterDoctors(
+            String specialtyName,
+            String location,
+            Boolean accepted,
+            LocalDate date,
+            LocalTime from,
+            LocalTime to,
+            String cursor,
+            int size
+    );
+
+    Slice<DoctorListItemDto> getAllDoctorsByDateRange(LocalDate from, LocalDate to, int page, int size);
 
     MedicalReportDto createMedicalReport(
             MedicalReportRequestDto medicalReportRequestDto,
@@ -66,10 +137,23 @@ public interface DoctorServices {
 
     String  cancelAppointment(Long appointmentId);
 
+    String cancelAppointmentsOn(LocalDate date);
+
     List<AppointmentDto> allAcceptedAppointments();
 
     List<AppointmentDto> allRejectedAppointments();
 
+    DoctorDashboardDto getDashboard();
+
+    KeysetPageDto<AppointmentInboxItemDto> appointmentInbox(
+            Set<AppointmentStatus> statuses,
+            LocalDate from,
+            LocalDate to,
+            Long patientId,
+            String cursor,
+            int size
+    );
+
     String rescheduleAppointment(Long appointmentId, LocalDateTime newAppointmentDate);
 
 
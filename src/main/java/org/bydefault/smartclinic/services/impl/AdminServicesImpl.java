@@ -3,6 +3,7 @@ package org.bydefault.smartclinic.services.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bydefault.smartclinic.dtos.common.*;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
 import org.bydefault.smartclinic.email.EmailService;
 import org.bydefault.smartclinic.entities.*;
 import org.bydefault.smartclinic.exception.ResourceNotFoundException;
@@ -10,15 +11,32 @@ import org.bydefault.smartclinic.exception.UserNotVerifiedException;
 import org.bydefault.smartclinic.exception.UserRoleException;
 import org.bydefault.smartclinic.mappers.*;
 import org.bydefault.smartclinic.repository.*;
+import org.bydefault.smartclinic.securityConfig.BoundedPasswordEncoder;
+import org.bydefault.smartclinic.securityConfig.TokenRevocationService;
+import org.bydefault.smartclinic.securityConfig.VerifiedTokenCache;
 import org.bydefault.smartclinic.services.admin.AdminServices;
+import org.bydefault.smartclinic.services.appointment.AppointmentBulkService;
+import org.bydefault.smartclinic.services.appointment.AppointmentSlot;
+import org.bydefault.smartclinic.services.calendar.DoctorCalendar;
+import org.bydefault.smartclinic.services.catalog.CachedSpecialty;
+import org.bydefault.smartclinic.services.catalog.DoctorDirectory;
+import org.bydefault.smartclinic.services.catalog.SpecialtyCatalog;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.bydefault.smartclinic.services.search.DoctorGeoIndex;
+import org.bydefault.smartclinic.services.search.DoctorSearchIndex;
+import org.bydefault.smartclinic.services.search.SuggestionIndex;
+import org.bydefault.smartclinic.services.stats.DoctorStatsRegistry;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -31,6 +49,8 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class AdminServicesImpl implements AdminServices {
 
+    private static final List<AppointmentStatus> ACTIVE_STATUSES = List.of(AppointmentStatus.PENDING, AppointmentStatus.ACCEPTED);
+
     private final UserRepository userRepository;
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
@@ -42,6 +62,17 @@ public class AdminServicesImpl implements AdminServices {
     private final MedicalReportMapper medicalReportMapper;
     private final SpecialtyMapper specialtyMapper;
     private final EmailService emailService;
+    private final AppointmentBulkService appointmentBulkService;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorGeoIndex doctorGeoIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final SpecialtyCatalog specialtyCatalog;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorStatsRegistry doctorStatsRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final BoundedPasswordEncoder boundedPasswordEncoder;
+    private final DoctorCalendar doctorCalendar;
 
     @Override
     public Page<UserDto> getAllUsers(Role role, int page, int size, List<String> sortList, String sortOrder) {
@@ -93,6 +124,10 @@ public class AdminServicesImpl implements AdminServices {
         // Save both entities
         Doctor savedDoctor = doctorRepository.save(doctor);
         userRepository.save(user);
+        doctorSearchIndex.putAfterCommit(savedDoctor);
+        doctorGeoIndex.putAfterCommit(savedDoctor);
+        doctorDirectory.refreshAfterCommit(savedDoctor.getId());
+        suggestionIndex.rebuildAfterCommit();
 
         // Send email notification asynchronously
         CompletableFuture.runAsync(() -> {
@@ -137,6 +172,10 @@ public class AdminServicesImpl implements AdminServices {
 
         // Remove doctor record and reset a user role
         doctorRepository.delete(doctor);
+        doctorSearchIndex.removeAfterCommit(doctor.getId());
+        doctorGeoIndex.removeAfterCommit(doctor.getId());
+        doctorDirectory.removeAfterCommit(doctor.getId());
+        suggestionIndex.rebuildAfterCommit();
         user.setRole(Role.PATIENT);
         userRepository.save(user);
 
@@ -150,6 +189,9 @@ public class AdminServicesImpl implements AdminServices {
         log.warn("Deleting user with id: {}", id);
 
         User user = findUserById(id);
+        // The user's active appointments are deleted with them, their calendar cells open up again
+        List<AppointmentSlot> releasedSlots = appointmentRepository.findActiveSlotsOfUser(user.getId(),
+                LocalDate.now().atStartOfDay(), ACTIVE_STATUSES);
 
         // Handle cascade deletion for doctor
         if (user.getRole() == Role.DOCTOR) {
@@ -157,10 +199,19 @@ public class AdminServicesImpl implements AdminServices {
                     .ifPresent(doctor -> {
                         log.debug("Deleting associated doctor record for user id: {}", id);
                         doctorRepository.delete(doctor);
+                        doctorSearchIndex.removeAfterCommit(doctor.getId());
+                        doctorGeoIndex.removeAfterCommit(doctor.getId());
+                        doctorDirectory.removeAfterCommit(doctor.getId());
+                        suggestionIndex.rebuildAfterCommit();
                     });
         }
 
         userRepository.deleteById(user.getId());
+        AfterCommit.run(() -> releasedSlots.forEach(slot -> doctorCalendar.release(slot.doctorId(), slot.appointmentDate())));
+        // Appointments and patients leave with the user, the counters are aggregated again
+        doctorStatsRegistry.reloadAfterCommit();
+        verifiedTokenCache.invalidateUserAfterCommit(user.getId());
+        tokenRevocationService.revokeUser(user.getId());
         log.warn("User deleted successfully with id: {}", id);
         return "User deleted successfully";
     }
@@ -192,11 +243,42 @@ public class AdminServicesImpl implements AdminServices {
 
         Appointment appointment = findAppointmentById(id);
         appointmentRepository.delete(appointment);
+        if (appointment.getDoctor() != null) {
+            Long doctorId = appointment.getDoctor().getId();
+            doctorStatsRegistry.onRemoved(doctorId, appointment.getAppointmentDate(), appointment.getStatus());
+            if (ACTIVE_STATUSES.contains(appointment.getStatus()) && appointment.getAppointmentDate() != null) {
+                AfterCommit.run(() -> doctorCalendar.release(doctorId, appointment.getAppointmentDate()));
+            }
+        }
 
         log.warn("Appointment deleted successfully with id: {}", id);
         return "Appointment deleted successfully";
     }
 
+    // The import commits through its own transaction, joining the read-only one of this class would make it fail
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AppointmentImportResultDto importAppointments(MultipartFile file) {
+        log.info("Importing appointments from file: {}", file != null ? file.getOriginalFilename() : null);
+        return appointmentBulkService.importAppointments(file);
+    }
+
+    @Override
+    @Transactional
+    public String transitionAppointments(AppointmentStatusTransitionDto transitionDto) {
+        int updated;
+        if (!CollectionUtils.isEmpty(transitionDto.getAppointmentIds())) {
+            updated = appointmentBulkService.transition(transitionDto.getAppointmentIds(), transitionDto.getStatus());
+        } else if (transitionDto.getDoctorId() != null && transitionDto.getDate() != null) {
+            findDoctorById(transitionDto.getDoctorId());
+            updated = appointmentBulkService.transition(transitionDto.getDoctorId(), transitionDto.getDate(), transitionDto.getStatus());
+        } else {
+            throw new IllegalArgumentException("Either appointment ids or a doctor id and a date are required");
+        }
+        log.info("Moved {} appointments to status {}", updated, transitionDto.getStatus());
+        return updated + " appointments moved to " + transitionDto.getStatus();
+    }
+
     @Override
     public List<AppointmentDto> getAppointmentByDoctorId(Long doctorId) {
         log.debug("Fetching appointments for doctor id: {}", doctorId);
@@ -248,6 +330,8 @@ public class AdminServicesImpl implements AdminServices {
 
         Specialty specialty = specialtyMapper.toDomain(specialtyDto);
         Specialty savedSpecialty = specialtyRepository.save(specialty);
+        specialtyCatalog.invalidateAfterCommit();
+        suggestionIndex.rebuildAfterCommit();
 
         log.info("Specialty created successfully with id: {}", savedSpecialty.getId());
         return specialtyMapper.toDto(savedSpecialty);
@@ -265,6 +349,13 @@ public class AdminServicesImpl implements AdminServices {
         specialty.setDescription(specialtyDto.getDescription());
 
         Specialty updatedSpecialty = specialtyRepository.save(specialty);
+        // The specialty's name and description are indexed with each of its doctors
+        if (!CollectionUtils.isEmpty(updatedSpecialty.getDoctors())) {
+            updatedSpecialty.getDoctors().forEach(doctorSearchIndex::putAfterCommit);
+            doctorDirectory.refreshAfterCommit(updatedSpecialty.getDoctors().stream().map(Doctor::getId).toList());
+        }
+        specialtyCatalog.invalidateAfterCommit();
+        suggestionIndex.rebuildAfterCommit();
         log.info("Specialty updated successfully with id: {}", id);
 
         return specialtyMapper.toDto(updatedSpecialty);
@@ -284,6 +375,8 @@ public class AdminServicesImpl implements AdminServices {
         }
 
         specialtyRepository.delete(specialty);
+        specialtyCatalog.invalidateAfterCommit();
+        suggestionIndex.rebuildAfterCommit();
         log.warn("Specialty deleted successfully with id: {}", id);
 
         return "Specialty deleted successfully";
@@ -293,28 +386,45 @@ public class AdminServicesImpl implements AdminServices {
     public List<SpecialtyDto> getAllSpecialties() {
         log.debug("Fetching all specialties");
 
-        List<Specialty> specialties = specialtyRepository.findAll();
+        List<CachedSpecialty> specialties = specialtyCatalog.findAll();
         log.debug("Found {} specialties", specialties.size());
 
         return specialties.stream()
-                .map(specialtyMapper::toDto)
+                .map(this::toSpecialtyDto)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<DoctorDto> getAllDoctorsBySpecialtyId(Long specialtyId) {
+    public List<CacheStatsDto> getCacheStats() {
+        return List.of(specialtyCatalog.stats(), doctorDirectory.stats(), verifiedTokenCache.stats());
+    }
+
+    @Override
+    public PasswordHashingStatsDto getPasswordHashingStats() {
+        return boundedPasswordEncoder.stats();
+    }
+
+    @Override
+    public List<DoctorListItemDto> getAllDoctorsBySpecialtyId(Long specialtyId) {
         log.debug("Fetching doctors for specialty id: {}", specialtyId);
 
-        Specialty specialty = findSpecialtyById(specialtyId);
-        Set<Doctor> doctors = specialty.getDoctors();
+        if (specialtyCatalog.findById(specialtyId).isEmpty()) {
+            throw new ResourceNotFoundException("Specialty not found with id: " + specialtyId);
+        }
+        List<DoctorListItemDto> doctors = doctorRepository.findListItemsBySpecialtyId(specialtyId);
 
         log.debug("Found {} doctors for specialty id: {}", doctors.size(), specialtyId);
-        return doctors.stream()
-                .map(doctorMapper::toDto)
-                .collect(Collectors.toList());
+        return doctors;
     }
 
     // Private helper methods
+    private SpecialtyDto toSpecialtyDto(CachedSpecialty specialty) {
+        SpecialtyDto specialtyDto = new SpecialtyDto();
+        specialtyDto.setName(specialty.name());
+        specialtyDto.setDescription(specialty.description());
+        return specialtyDto;
+    }
+
     private User findUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -18,10 +18,13 @@ import org.bydefault.smartclinic.mappers.UserMapper;
 import org.bydefault.smartclinic.repository.ProfileRepository;
 import org.bydefault.smartclinic.repository.UserRepository;
 import org.bydefault.smartclinic.securityConfig.JwtConfig;
+import org.bydefault.smartclinic.securityConfig.JwtPrincipal;
 import org.bydefault.smartclinic.securityConfig.JwtServices;
+import org.bydefault.smartclinic.securityConfig.TokenRevocationService;
 import org.bydefault.smartclinic.services.auth.AuthUserServices;
 import org.bydefault.smartclinic.services.ImageService;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -41,11 +44,14 @@ public class AuthUserServiceImpl implements AuthUserServices {
 
     //    in minutes
     private static final int CODE_EXPIRY_MINUTES = 5;
+    // Covers both refresh-token/ and logout/, so logout can revoke the refresh token
+    private static final String REFRESH_COOKIE_PATH = "/api/v1/auth/";
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtServices jwtServices;
     private final JwtConfig jwtConfig;
+    private final TokenRevocationService tokenRevocationService;
     private final UserMapper userMapper;
     private final ProfileMapper profileMapper;
     private final EmailService emailService;
@@ -160,6 +166,7 @@ public class AuthUserServiceImpl implements AuthUserServices {
 
 
     @Override
+    @Transactional
     public String changePassword(PasswordUpdateDto passwordUpdateDto) {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         var userId = (Long) authentication.getPrincipal();
@@ -178,31 +185,34 @@ public class AuthUserServiceImpl implements AuthUserServices {
         }
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        // Sessions opened with the old password end with it
+        tokenRevocationService.revokeUser(user.getId());
 
         return "Password changed successfully";
     }
 
     @Override
     public JwtResponse login(LoginRequestDto loginRequestDto, HttpServletResponse response) {
+        // The provider loads the user once and hands it back as the principal
+        User user;
         try {
-            authenticationManager.authenticate(
+            var authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequestDto.getEmail(), loginRequestDto.getPassword())
             );
+            user = (User) authentication.getPrincipal();
+        } catch (DisabledException ex) {
+            log.warn("User {} is not verified", loginRequestDto.getEmail());
+            throw new VerificationException("Please verify your account before logging in");
         } catch (AuthenticationException ex) {
             log.warn("Authentication failed for email: {}", loginRequestDto.getEmail());
             log.warn("Authentication exception: {}", ex.getMessage());
             throw new BadCredentialsException("Invalid email or password");
         }
-        var user = userRepository.findByEmail(loginRequestDto.getEmail()).orElseThrow(() -> new ResourceNotFoundException("User " + loginRequestDto.getEmail() + " not found"));
-        if (!user.getIsVerified()) {
-            log.warn("User {} is not verified", user.getEmail());
-            throw new VerificationException("Please verify your account before logging in");
-        }
         var accessToken = jwtServices.generateAccessToken(user);
         var refreshToken = jwtServices.generateRefreshToken(user);
         var cookie = new Cookie("refresh_token", refreshToken);
         cookie.setHttpOnly(true);
-        cookie.setPath("/api/v1/auth/refresh/");
+        cookie.setPath(REFRESH_COOKIE_PATH);
         cookie.setMaxAge(jwtConfig.getRefreshTokenExpiration() / 1000);
         cookie.setSecure(true);
         response.addCookie(cookie);
@@ -222,10 +232,9 @@ public class AuthUserServiceImpl implements AuthUserServices {
 
     @Override
     public JwtResponse refreshToken(String refreshToken) {
-        if (!jwtServices.validateJwtToken(refreshToken)) {
-            throw new RuntimeException("Invalid JWT token");
-        }
-        var userId = jwtServices.getUserIdFromJwtToken(refreshToken);
+        var userId = jwtServices.verifyActive(refreshToken)
+                .map(JwtPrincipal::userId)
+                .orElseThrow(() -> new RuntimeException("Invalid JWT token"));
         var user = userRepository.findById(userId).orElseThrow(() -> new ResourceNotFoundException("User not found"));
         var accessToken = jwtServices.generateRefreshToken(user);
         var jwtToken = new JwtResponse();
@@ -233,6 +242,25 @@ public class AuthUserServiceImpl implements AuthUserServices {
         return jwtToken;
     }
 
+    @Override
+    public String logout(String accessToken, String refreshToken, HttpServletResponse response) {
+        var userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        jwtServices.verify(accessToken).ifPresent(tokenRevocationService::revokeToken);
+        if (refreshToken != null) {
+            jwtServices.verify(refreshToken)
+                    .filter(principal -> principal.userId().equals(userId))
+                    .ifPresent(tokenRevocationService::revokeToken);
+        }
+
+        var cookie = new Cookie("refresh_token", "");
+        cookie.setHttpOnly(true);
+        cookie.setPath(REFRESH_COOKIE_PATH);
+        cookie.setMaxAge(0);
+        cookie.setSecure(true);
+        response.addCookie(cookie);
+        return "Logged out successfully";
+    }
+
     @Override
     public String forgotPassword(ForgotPassword forgotPassword) {
         var code = forgotPassword.getToken();
@@ -257,6 +285,7 @@ public class AuthUserServiceImpl implements AuthUserServices {
         user.setCode(null);
         user.setCodeExpiresAt(null);
         userRepository.save(user);
+        tokenRevocationService.revokeUser(user.getId());
 
         log.info("Password reset successfully for email: {}", user.getEmail());
         return "Password reset successfully. Please go ahead and login with your new password.";
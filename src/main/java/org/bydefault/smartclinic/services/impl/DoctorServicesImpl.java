@@ -4,9 +4,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bydefault.smartclinic.dtos.common.AppointmentDto;
 import org.bydefault.smartclinic.dtos.common.AvailabilityDto;
+import org.bydefault.smartclinic.dtos.common.AvailableSlotDto;
+import org.bydefault.smartclinic.dtos.common.CalendarDayDto;
 import org.bydefault.smartclinic.dtos.common.DoctorDto;
+import org.bydefault.smartclinic.dtos.common.KeysetPageDto;
 import org.bydefault.smartclinic.dtos.common.MedicalReportDto;
+import org.bydefault.smartclinic.dtos.common.NearbyDoctorDto;
+import org.bydefault.smartclinic.dtos.common.SuggestionDto;
+import org.bydefault.smartclinic.dtos.doctor.AppointmentInboxItemDto;
+import org.bydefault.smartclinic.dtos.doctor.AvailabilityRuleDto;
+import org.bydefault.smartclinic.dtos.doctor.AvailabilityRuleExclusionDto;
+import org.bydefault.smartclinic.dtos.doctor.BulkAvailabilityResultDto;
 import org.bydefault.smartclinic.dtos.doctor.DoctorApplicationDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorDashboardDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorLocationDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorSummaryDto;
 import org.bydefault.smartclinic.dtos.doctor.MedicalReportRequestDto;
 import org.bydefault.smartclinic.email.EmailService;
 import org.bydefault.smartclinic.entities.*;
@@ -20,7 +33,37 @@ import org.bydefault.smartclinic.mappers.DoctorMapper;
 import org.bydefault.smartclinic.mappers.MedicalReportMapper;
 import org.bydefault.smartclinic.repository.*;
 import org.bydefault.smartclinic.services.ImageService;
+import org.bydefault.smartclinic.services.appointment.AppointmentBulkService;
+import org.bydefault.smartclinic.services.appointment.AppointmentCommandView;
+import org.bydefault.smartclinic.services.appointment.AppointmentReservationService;
+import org.bydefault.smartclinic.services.appointment.InboxCursor;
+import org.bydefault.smartclinic.services.availability.AvailabilityBatchWriter;
+import org.bydefault.smartclinic.services.availability.AvailabilityRuleRegistry;
+import org.bydefault.smartclinic.services.availability.AvailabilitySlot;
+import org.bydefault.smartclinic.services.availability.AvailabilitySlotIndex;
+import org.bydefault.smartclinic.services.calendar.DoctorCalendar;
+import org.bydefault.smartclinic.services.catalog.CachedSpecialty;
+import org.bydefault.smartclinic.services.catalog.DoctorDirectory;
+import org.bydefault.smartclinic.services.catalog.SpecialtyCatalog;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.bydefault.smartclinic.services.concurrency.OptimisticRetry;
+import org.bydefault.smartclinic.services.doctor.DoctorCursor;
 import org.bydefault.smartclinic.services.doctor.DoctorServices;
+import org.bydefault.smartclinic.services.ranking.DoctorRanker;
+import org.bydefault.smartclinic.services.ranking.RankingCandidate;
+import org.bydefault.smartclinic.services.ranking.RankingContext;
+import org.bydefault.smartclinic.services.search.DoctorGeoIndex;
+import org.bydefault.smartclinic.services.search.DoctorSearchIndex;
+import org.bydefault.smartclinic.services.search.SuggestionIndex;
+import org.bydefault.smartclinic.services.stats.DoctorStatsRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -31,14 +74,31 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 
 public class DoctorServicesImpl implements DoctorServices {
+    private static final int MAX_BULK_AVAILABILITIES = 5000;
+    private static final DateTimeFormatter SLOT_TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    private static final List<AppointmentStatus> ACTIVE_APPOINTMENT_STATUSES = List.of(AppointmentStatus.PENDING, AppointmentStatus.ACCEPTED);
+    // Upper bound on the candidates scored per search, the ranking signals are cheap but not free
+    private static final int MAX_RANKED_CANDIDATES = 200;
+    private static final int NEARBY_POOL_FACTOR = 3;
+
     private final AppointmentMapper appointmentMapper;
 
     private final ImageService imageService;
@@ -52,6 +112,21 @@ public class DoctorServicesImpl implements DoctorServices {
     private final DoctorMapper doctorMapper;
     private final MedicalReportMapper medicalReportMapper;
     private final MedicalReportRepository medicalReportRepository;
+    private final AvailabilitySlotIndex availabilitySlotIndex;
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final AvailabilityRuleRegistry availabilityRuleRegistry;
+    private final AvailabilityBatchWriter availabilityBatchWriter;
+    private final AppointmentReservationService appointmentReservationService;
+    private final AppointmentBulkService appointmentBulkService;
+    private final DoctorCalendar doctorCalendar;
+    private final OptimisticRetry optimisticRetry;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorGeoIndex doctorGeoIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final SpecialtyCatalog specialtyCatalog;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorRanker doctorRanker;
+    private final DoctorStatsRegistry doctorStatsRegistry;
 
     @Override
     @Transactional
@@ -64,8 +139,10 @@ public class DoctorServicesImpl implements DoctorServices {
             throw new UserAlreadyExistException("You have already submitted a doctor application");
         }
         String specialty_name = applicationDto.getSpecialty().getName().toLowerCase();
-        Specialty specialty = specialtyRepository.findByNameContainsIgnoreCase(specialty_name)
+        CachedSpecialty cachedSpecialty = specialtyCatalog.findByName(specialty_name)
                 .orElseThrow(() -> new ResourceNotFoundException("Specialty not found: " + specialty_name));
+        // The doctor only needs the foreign key, a reference avoids loading the specialty again
+        Specialty specialty = specialtyRepository.getReferenceById(cachedSpecialty.id());
 
         try {
             // Upload files
@@ -77,6 +154,8 @@ public class DoctorServicesImpl implements DoctorServices {
             Doctor application = new Doctor();
             application.setUser(user);
             application.setLocation(applicationDto.getLocation());
+            application.setLatitude(applicationDto.getLatitude());
+            application.setLongitude(applicationDto.getLongitude());
             application.setHighersQualifications(applicationDto.getHighersQualifications());
             application.setAnyOtherQualifications(applicationDto.getAnyOtherQualifications());
             application.setIdPhoto(idPhotoUrl);
@@ -104,6 +183,22 @@ public class DoctorServicesImpl implements DoctorServices {
         }
     }
 
+    @Override
+    @Transactional
+    public DoctorDto updateLocation(DoctorLocationDto locationDto) {
+        Doctor doctor = doctorRepository.findByUser(getDoctor());
+        if (locationDto.getLocation() != null && !locationDto.getLocation().isBlank()) {
+            doctor.setLocation(locationDto.getLocation().trim());
+        }
+        doctor.setLatitude(locationDto.getLatitude());
+        doctor.setLongitude(locationDto.getLongitude());
+        Doctor savedDoctor = doctorRepository.save(doctor);
+        doctorGeoIndex.putAfterCommit(savedDoctor);
+        doctorSearchIndex.putAfterCommit(savedDoctor);
+        doctorDirectory.refreshAfterCommit(savedDoctor.getId());
+        return doctorMapper.toDto(savedDoctor);
+    }
+
     @Override
     public AvailabilityDto addAvailability(AvailabilityDto availabilityDto) {
         // Get the currently authenticated user
@@ -115,21 +210,91 @@ public class DoctorServicesImpl implements DoctorServices {
         // Create a new Availability entity from the DTO
         Availability availability = new Availability();
         availability.setDay(availabilityDto.getDay());
-        availability.setTime(availabilityDto.getTime());
+        // Stored as "HH:mm", so time windows can compare the column as a string
+        availability.setTime(normalizeTime(availabilityDto.getTime()));
         availability.setDate(availabilityDto.getDate());
         availability.setAvailable(availabilityDto.isAvailable());
 
-        // Use the helper method to properly manage the bidirectional relationship
-        doctor.addAvailability(availability);
+        // Only the owning side is set: loading the doctor's whole availability set just to add one slot is wasted work
+        availability.setDoctor(doctor);
 
-        // Save the doctor (which will cascade to save the availability)
-        doctorRepository.save(doctor);
+        // Save the availability directly so the generated ID is available
+        Availability savedAvailability;
+        try {
+            savedAvailability = availabilityRepository.save(availability);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidStateException("Slot already exists");
+        }
+        availabilitySlotIndex.put(savedAvailability);
+        doctorCalendar.refreshAvailability(doctor.getId());
 
         // Return the DTO with the generated ID
-        availabilityDto.setId(availability.getId());
+        availabilityDto.setId(savedAvailability.getId());
+        availabilityDto.setTime(savedAvailability.getTime());
+        availabilityDto.setVersion(savedAvailability.getVersion());
         return availabilityDto;
     }
 
+    @Override
+    public BulkAvailabilityResultDto addAvailabilities(List<AvailabilityDto> availabilityDtos) {
+        if (availabilityDtos == null || availabilityDtos.isEmpty()) {
+            throw new IllegalArgumentException("At least one availability is required");
+        }
+        if (availabilityDtos.size() > MAX_BULK_AVAILABILITIES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_AVAILABILITIES + " availabilities can be added at once");
+        }
+        Doctor doctor = doctorRepository.findByUser(getDoctor());
+
+        // Existing slots come from the in-memory index, duplicates are detected without touching the table
+        Set<String> knownSlots = new HashSet<>();
+        availabilitySlotIndex.findByDoctor(doctor.getId()).forEach(slot -> knownSlots.add(slot.slotKey()));
+
+        BulkAvailabilityResultDto.Row[] rows = new BulkAvailabilityResultDto.Row[availabilityDtos.size()];
+        List<AvailabilitySlot> pending = new ArrayList<>();
+        List<Integer> pendingRows = new ArrayList<>();
+        for (int i = 0; i < availabilityDtos.size(); i++) {
+            AvailabilityDto availabilityDto = availabilityDtos.get(i);
+            AvailabilitySlot slot;
+            try {
+                slot = toSlot(doctor.getId(), availabilityDto);
+            } catch (IllegalArgumentException e) {
+                rows[i] = new BulkAvailabilityResultDto.Row(i, null, BulkAvailabilityResultDto.Status.INVALID, e.getMessage());
+                continue;
+            }
+            if (!knownSlots.add(slot.slotKey())) {
+                rows[i] = new BulkAvailabilityResultDto.Row(i, null, BulkAvailabilityResultDto.Status.DUPLICATE,
+                        "Slot already exists");
+                continue;
+            }
+            pending.add(slot);
+            pendingRows.add(i);
+        }
+
+        // All new slots are written in one transaction with JDBC batches, a slot created concurrently comes back null
+        List<AvailabilitySlot> inserted = pending.isEmpty() ? List.of() : availabilityBatchWriter.insert(doctor.getId(), pending);
+        int created = 0;
+        for (int i = 0; i < inserted.size(); i++) {
+            AvailabilitySlot slot = inserted.get(i);
+            int index = pendingRows.get(i);
+            if (slot == null) {
+                rows[index] = new BulkAvailabilityResultDto.Row(index, null, BulkAvailabilityResultDto.Status.DUPLICATE,
+                        "Slot already exists");
+                continue;
+            }
+            availabilitySlotIndex.put(slot);
+            rows[index] = new BulkAvailabilityResultDto.Row(index, slot.id(), BulkAvailabilityResultDto.Status.CREATED, null);
+            created++;
+        }
+        if (created > 0) {
+            doctorCalendar.refreshAvailability(doctor.getId());
+        }
+
+        int invalid = (int) Arrays.stream(rows)
+                .filter(row -> row.getStatus() == BulkAvailabilityResultDto.Status.INVALID)
+                .count();
+        return new BulkAvailabilityResultDto(created, rows.length - created - invalid, invalid, List.of(rows));
+    }
+
     @Override
     public AvailabilityDto updateAvailability(Long availabilityId, AvailabilityDto availabilityDto) {
         User user = getDoctor();
@@ -139,15 +304,27 @@ public class DoctorServicesImpl implements DoctorServices {
         if (!availability.getDoctor().getId().equals(doctor.getId())) {
             throw new ResourceNotFoundException("Availability does not belong to the doctor");
         }
+        // Reject updates made against a stale copy instead of silently overwriting a concurrent change
+        if (availabilityDto.getVersion() != null && !availabilityDto.getVersion().equals(availability.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Availability.class, availabilityId);
+        }
         // Update the availability fields
         availability.setDay(availabilityDto.getDay());
-        availability.setTime(availabilityDto.getTime());
+        availability.setTime(normalizeTime(availabilityDto.getTime()));
         availability.setDate(availabilityDto.getDate());
         availability.setAvailable(availabilityDto.isAvailable());
-        // Save the updated availability
-        availabilityRepository.save(availability);
+        // Save the updated availability, the version check also covers writers that skipped the check above
+        try {
+            availability = availabilityRepository.saveAndFlush(availability);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidStateException("Slot already exists");
+        }
+        availabilitySlotIndex.put(availability);
+        doctorCalendar.refreshAvailability(doctor.getId());
         // Return the updated DTO
         availabilityDto.setId(availability.getId());
+        availabilityDto.setTime(availability.getTime());
+        availabilityDto.setVersion(availability.getVersion());
         return availabilityDto;
     }
 
@@ -167,6 +344,8 @@ public class DoctorServicesImpl implements DoctorServices {
         }
         // Delete the availability
         availabilityRepository.delete(availability);
+        availabilitySlotIndex.remove(availabilityId);
+        doctorCalendar.refreshAvailability(doctor.getId());
 
         return " Availability with ID " + availabilityId + " deleted successfully.";
     }
@@ -182,6 +361,7 @@ public class DoctorServicesImpl implements DoctorServices {
         availabilityDto.setTime(availability.getTime());
         availabilityDto.setDate(availability.getDate());
         availabilityDto.setAvailable(availability.isAvailable());
+        availabilityDto.setVersion(availability.getVersion());
         return availabilityDto;
     }
 
@@ -195,7 +375,126 @@ public class DoctorServicesImpl implements DoctorServices {
     }
 
     @Override
-    public List<DoctorDto> getAllDoctorsByAvailability(String day, LocalTime time) {
+    @Transactional
+    public AvailabilityRuleDto addAvailabilityRule(AvailabilityRuleDto availabilityRuleDto) {
+        Doctor doctor = doctorRepository.findByUser(getDoctor());
+        validateAvailabilityRule(availabilityRuleDto);
+
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setDoctor(doctor);
+        rule.setDays(availabilityRuleDto.getDays());
+        rule.setStartTime(availabilityRuleDto.getStartTime());
+        rule.setEndTime(availabilityRuleDto.getEndTime());
+        rule.setSlotMinutes(availabilityRuleDto.getSlotMinutes());
+        rule.setValidFrom(availabilityRuleDto.getValidFrom() != null ? availabilityRuleDto.getValidFrom() : LocalDate.now());
+        rule.setValidUntil(availabilityRuleDto.getValidUntil());
+
+        // A single row describes every slot of the rule, they are expanded on demand by the registry
+        AvailabilityRule savedRule = availabilityRuleRepository.save(rule);
+        availabilityRuleRegistry.putAfterCommit(savedRule);
+        return toAvailabilityRuleDto(savedRule);
+    }
+
+    @Override
+    public List<AvailabilityRuleDto> getAvailabilityRules() {
+        Doctor doctor = doctorRepository.findByUser(getDoctor());
+        return availabilityRuleRepository.findByDoctorId(doctor.getId()).stream()
+                .map(this::toAvailabilityRuleDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public String deleteAvailabilityRule(Long ruleId) {
+        Doctor doctor = doctorRepository.findByUser(getDoctor());
+        AvailabilityRule rule = findOwnedAvailabilityRule(ruleId, doctor);
+        availabilityRuleRepository.delete(rule);
+        availabilityRuleRegistry.removeAfterCommit(doctor.getId(), ruleId);
+        return "Availability rule with ID " + ruleId + " deleted successfully.";
+    }
+
+    @Override
+    @Transactional
+    public AvailabilityRuleDto addAvailabilityRuleExclusion(Long ruleId, AvailabilityRuleExclusionDto exclusionDto) {
+        Doctor doctor = doctorRepository.findByUser(getDoctor());
+        AvailabilityRule rule = findOwnedAvailabilityRule(ruleId, doctor);
+
+        AvailabilityRuleExclusion exclusion = new AvailabilityRuleExclusion();
+        exclusion.setDate(exclusionDto.getDate());
+        exclusion.setStartTime(exclusionDto.getStartTime());
+        exclusion.setReason(exclusionDto.getReason());
+        rule.addExclusion(exclusion);
+
+        AvailabilityRule savedRule = availabilityRuleRepository.save(rule);
+        availabilityRuleRegistry.putAfterCommit(savedRule);
+        return toAvailabilityRuleDto(savedRule);
+    }
+
+    @Override
+    public List<LocalDateTime> getRecurringSlots(Long doctorId, LocalDate from, int days) {
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
+        }
+        // Only the requested window is ever expanded
+        return availabilityRuleRegistry.expand(doctorId, from, from.plusDays(days)).toList();
+    }
+
+    @Override
+    public List<CalendarDayDto> getDoctorCalendar(Long doctorId, LocalDate from, int days) {
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
+        }
+        // Free/busy comes straight from the calendar bitmaps, no availability or appointment rows are loaded
+        List<CalendarDayDto> calendar = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            LocalDate date = from.plusDays(i);
+            calendar.add(new CalendarDayDto(date, DoctorCalendar.SLOT_MINUTES,
+                    DoctorCalendar.slotTimes(doctorCalendar.freeMask(doctorId, date)),
+                    DoctorCalendar.slotTimes(doctorCalendar.busyMask(doctorId, date))));
+        }
+        return calendar;
+    }
+
+    @Override
+    public AvailableSlotDto getEarliestFreeSlot(Long doctorId, LocalDateTime from) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
+        LocalDateTime start = doctorCalendar.earliestFreeSlot(doctorId, from)
+                .orElseThrow(() -> new ResourceNotFoundException("No free slot for doctor with id: " + doctorId +
+                        " in the next " + DoctorCalendar.SEARCH_HORIZON_DAYS + " days"));
+        return new AvailableSlotDto(doctorId, doctor.getFullName(), doctor.getLocation(), start);
+    }
+
+    @Override
+    public List<AvailableSlotDto> getEarliestSlotsBySpecialty(String specialtyName, String location,
+                                                              LocalDateTime from, LocalDateTime to, int limit) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("End of the time window must be after its start");
+        }
+        CachedSpecialty specialty = specialtyCatalog.findByName(specialtyName)
+                .orElseThrow(() -> new ResourceNotFoundException("Specialty not found: " + specialtyName));
+        String locationFilter = location == null || location.isBlank() ? null : location.trim();
+        List<Long> doctorIds = doctorRepository.findAcceptedIdsBySpecialty(specialty.id(), locationFilter);
+
+        // Merge the doctors' free-slot streams, only the requested number of slots is materialised
+        List<DoctorCalendar.FreeSlot> slots = doctorCalendar.earliestFreeSlots(doctorIds, from, to, limit);
+        if (slots.isEmpty()) {
+            throw new ResourceNotFoundException("No free slot found for specialty: " + specialtyName);
+        }
+        Map<Long, Doctor> doctorsById = doctorRepository.findAllById(
+                        slots.stream().map(DoctorCalendar.FreeSlot::doctorId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        return slots.stream()
+                .filter(slot -> doctorsById.containsKey(slot.doctorId()))
+                .map(slot -> {
+                    Doctor doctor = doctorsById.get(slot.doctorId());
+                    return new AvailableSlotDto(doctor.getId(), doctor.getFullName(), doctor.getLocation(), slot.start());
+                })
+                .toList();
+    }
+
+    @Override
+    public List<DoctorListItemDto> getAllDoctorsByAvailability(String day, LocalTime time) {
         // This method should return a list of doctors available on a specific day and time
         // Convert the day string to a Day enum
         Day dayEnum;
@@ -204,55 +503,189 @@ public class DoctorServicesImpl implements DoctorServices {
         } catch (IllegalArgumentException e) {
             throw new ResourceNotFoundException("Invalid day: " + day);
         }
-        // Find all availabilities for the specified day and time
-        List<Availability> availabilities = availabilityRepository.findByDayAndTime(dayEnum, String.valueOf(time));
-        if (availabilities.isEmpty()) {
+        // Resolve the doctors from the in-memory slot index and recurring rules instead of scanning the availability table
+        Set<Long> doctorIds = new LinkedHashSet<>(availabilitySlotIndex.findDoctorIds(dayEnum, time));
+        doctorIds.addAll(availabilityRuleRegistry.findDoctorIds(dayEnum, time));
+        if (doctorIds.isEmpty()) {
             throw new ResourceNotFoundException("No doctors available on " + day + " at " + time);
         }
-        // Map the availabilities to DoctorDto
-        return availabilities.stream()
-                .map(Availability::getDoctor)
-                .distinct()
-                .map(doctorMapper::toDto)
-                .toList();
+        // Load all matching doctors in a single query
+        return doctorRepository.findListItemsByIdIn(doctorIds);
     }
 
     @Override
-    public List<DoctorDto> getAllDoctorsBySpecialty(String specialtyName) {
+    public List<DoctorListItemDto> getAllDoctorsBySpecialty(String specialtyName) {
         // This method should return a list of doctors by specialty
-        Specialty specialty = specialtyRepository.findByNameContainsIgnoreCase(specialtyName)
+        CachedSpecialty specialty = specialtyCatalog.findByName(specialtyName)
                 .orElseThrow(() -> new ResourceNotFoundException("Specialty not found: " + specialtyName));
 
-        List<Doctor> doctors = doctorRepository.findBySpecialty(specialty);
+        List<DoctorListItemDto> doctors = doctorRepository.findListItemsBySpecialtyId(specialty.id());
         if (doctors.isEmpty()) {
             throw new ResourceNotFoundException("No doctors found for specialty: " + specialtyName);
         }
-        return doctors.stream().map(doctorMapper::toDto).toList();
+        return doctors;
     }
 
     @Override
-    public List<DoctorDto> getAllDoctorsByLocation(String location) {
+    public List<DoctorListItemDto> getAllDoctorsByLocation(String location) {
         // This method should return a list of doctors by location
-        List<Doctor> doctors = doctorRepository.findByLocationContainsIgnoreCase(location);
+        List<DoctorListItemDto> doctors = doctorRepository.findListItemsByLocation(location);
         if (!doctors.isEmpty()) {
-            return doctors.stream().map(doctorMapper::toDto).toList();
+            return doctors;
         }
         throw new ResourceNotFoundException("No doctors found in location: " + location);
     }
 
     @Override
-    public List<DoctorDto> getAllDoctorsByDate(LocalDate date) {
+    public List<DoctorListItemDto> getAllDoctorsByDate(LocalDate date) {
         // This method should return a list of doctors available on a specific date
-        List<Doctor> doctors = doctorRepository.findAll();
+        List<DoctorListItemDto> doctors = new ArrayList<>(findAvailableDoctors(date, date, Pageable.unpaged()).getContent());
+        // Doctors whose recurring rules open a slot on that date have no availability row to match
+        Set<Long> ruleDoctorIds = availabilityRuleRegistry.findDoctorIds(date);
+        doctors.forEach(doctor -> ruleDoctorIds.remove(doctor.getId()));
+        if (!ruleDoctorIds.isEmpty()) {
+            doctors.addAll(doctorRepository.findListItemsByIdIn(ruleDoctorIds));
+        }
         if (doctors.isEmpty()) {
-            throw new ResourceNotFoundException("No doctors found");
+            throw new ResourceNotFoundException("No doctors available on " + date);
         }
-        return doctors.stream()
-                .filter(doctor -> !doctor.getAvailableTimeSlots(date).isEmpty())
-                .map(doctorMapper::toDto)
+        return doctors;
+    }
+
+    @Override
+    public Page<DoctorSummaryDto> searchDoctors(String query, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        // Matching, ranking and paging happen in memory, only the doctors of the page are loaded
+        Map<Long, Double> relevance = doctorSearchIndex.score(query);
+        if (relevance.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        List<RankingCandidate> byRelevance = relevance.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new RankingCandidate(entry.getKey(), entry.getValue(), null))
+                .toList();
+        // Only the best text matches are re-ranked, the long tail keeps its relevance order
+        int ranked = Math.min(byRelevance.size(), MAX_RANKED_CANDIDATES);
+        List<RankingCandidate> candidates = new ArrayList<>(doctorRanker.rank(byRelevance.subList(0, ranked),
+                new RankingContext(LocalDateTime.now(), byRelevance.get(0).relevance(), null)));
+        candidates.addAll(byRelevance.subList(ranked, byRelevance.size()));
+
+        List<Long> pageIds = candidates.stream()
+                .skip(pageable.getOffset())
+                .limit(size)
+                .map(RankingCandidate::doctorId)
+                .toList();
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, relevance.size());
+        }
+        Map<Long, DoctorSummaryDto> doctorsById = doctorRepository.findSummariesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(DoctorSummaryDto::getId, Function.identity()));
+        List<DoctorSummaryDto> doctors = pageIds.stream()
+                .map(doctorsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(doctors, pageable, relevance.size());
+    }
+
+    @Override
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        // Served entirely from the in-memory trie, no database access per keystroke
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public List<NearbyDoctorDto> findNearbyDoctors(double latitude, double longitude, double radiusKm, int limit,
+                                                   String specialtyName, LocalDate availableOn) {
+        Long specialtyId = null;
+        if (specialtyName != null && !specialtyName.isBlank()) {
+            specialtyId = specialtyCatalog.findByName(specialtyName)
+                    .orElseThrow(() -> new ResourceNotFoundException("Specialty not found: " + specialtyName))
+                    .id();
+        }
+        Long requiredSpecialtyId = specialtyId;
+        // Filters are applied while walking the grid, so they only ever see the doctors around the point.
+        // A wider pool than requested is taken so that close but busy doctors can give way to less loaded ones.
+        int pool = Math.min(MAX_RANKED_CANDIDATES, limit * NEARBY_POOL_FACTOR);
+        List<DoctorGeoIndex.NearbyDoctor> nearby = doctorGeoIndex.nearest(latitude, longitude, radiusKm, pool, entry ->
+                (requiredSpecialtyId == null || requiredSpecialtyId.equals(entry.specialtyId()))
+                        && (availableOn == null || doctorCalendar.freeMask(entry.doctorId(), availableOn) != 0L));
+        if (nearby.isEmpty()) {
+            throw new ResourceNotFoundException("No doctors found within " + radiusKm + " km");
+        }
+        List<RankingCandidate> ranked = doctorRanker.rank(nearby.stream()
+                        .map(doctor -> new RankingCandidate(doctor.doctorId(), 0.0, doctor.distanceKm()))
+                        .toList(),
+                new RankingContext(LocalDateTime.now(), 0.0, radiusKm));
+        List<RankingCandidate> selected = ranked.subList(0, Math.min(limit, ranked.size()));
+        Map<Long, DoctorSummaryDto> doctorsById = doctorRepository.findSummariesByIdIn(
+                        selected.stream().map(RankingCandidate::doctorId).toList()).stream()
+                .collect(Collectors.toMap(DoctorSummaryDto::getId, Function.identity()));
+        return selected.stream()
+                .filter(doctor -> doctorsById.containsKey(doctor.doctorId()))
+                .map(doctor -> new NearbyDoctorDto(doctorsById.get(doctor.doctorId()),
+                        Math.round(doctor.distanceKm() * 100) / 100.0))
                 .toList();
     }
 
+    @Override
+    public KeysetPageDto<DoctorListItemDto> filterDoctors(String specialtyName, String location, Boolean accepted,
+                                                          LocalDate date, LocalTime from, LocalTime to,
+                                                          String cursor, int size) {
+        if ((from != null || to != null) && date == null) {
+            throw new IllegalArgumentException("A time window requires a date");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        Set<Long> recurringDoctorIds = Set.of();
+        if (date != null) {
+            // Recurring slots are never stored, the doctors they make free are resolved from the calendar
+            long window = DoctorCalendar.windowMask(from, to);
+            recurringDoctorIds = availabilityRuleRegistry.findDoctorIds(date).stream()
+                    .filter(doctorId -> (doctorCalendar.freeMask(doctorId, date) & window) != 0L)
+                    .collect(Collectors.toSet());
+        }
+        Long specialtyId = null;
+        if (specialtyName != null && !specialtyName.isBlank()) {
+            specialtyId = specialtyCatalog.findByName(specialtyName)
+                    .orElseThrow(() -> new ResourceNotFoundException("Specialty not found: " + specialtyName))
+                    .id();
+        }
+        Long after = cursor != null && !cursor.isBlank() ? DoctorCursor.decode(cursor).doctorId() : null;
+        DoctorFilter filter = new DoctorFilter(specialtyId, blankToNull(location), accepted,
+                date, from, to, recurringDoctorIds);
+        // One extra row tells whether another page follows
+        List<DoctorListItemDto> rows = doctorRepository.findByFilter(filter, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<DoctorListItemDto> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? new DoctorCursor(content.get(content.size() - 1).getId()).encode() : null;
+        return new KeysetPageDto<>(List.copyOf(content), nextCursor, hasNext);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    @Override
+    public Slice<DoctorListItemDto> getAllDoctorsByDateRange(LocalDate from, LocalDate to, int page, int size) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        return findAvailableDoctors(from, to, PageRequest.of(page, size));
+    }
+
+    private Slice<DoctorListItemDto> findAvailableDoctors(LocalDate from, LocalDate to, Pageable pageable) {
+        // First round trip: the composite (date, is_available, doctor_id) index yields the matching doctor ids
+        Slice<Long> doctorIds = availabilityRepository.findAvailableDoctorIds(
+                java.sql.Date.valueOf(from), java.sql.Date.valueOf(to.plusDays(1)), pageable);
+        if (doctorIds.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        // Second round trip: the list rows of those doctors, already in id order like the ids themselves
+        List<DoctorListItemDto> doctors = doctorRepository.findListItemsByIdIn(doctorIds.getContent());
+        return new SliceImpl<>(doctors, pageable, doctorIds.hasNext());
+    }
+
     @Override
     public MedicalReportDto createMedicalReport(MedicalReportRequestDto medicalReportDto, Long userId) {
         // This method should create a medical report for a user
@@ -280,72 +713,94 @@ public class DoctorServicesImpl implements DoctorServices {
     }
 
     @Override
-    @Transactional
     public String acceptAppointment(Long appointmentId) {
-        // Find the appointment
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + appointmentId));
+        // Accepting is idempotent, a lost race is retried against the fresh state
+        return optimisticRetry.execute(() -> doAcceptAppointment(appointmentId));
+    }
 
-        // Check if the appointment is already completed or canceled
-        if (appointment.getStatus().equals(AppointmentStatus.COMPLETED) ||
-                appointment.getStatus().equals(AppointmentStatus.CANCELED)) {
-            throw new InvalidStateException("Cannot accept appointment with status: " + appointment.getStatus());
+    private String doAcceptAppointment(Long appointmentId) {
+        // Everything the command needs in one projection query, no aggregate is loaded
+        AppointmentCommandView appointment = findAppointmentCommandView(appointmentId);
+
+        Long userId = currentUserId();
+        if (!appointment.isDoctor(userId)) {
+            throw new UnAuthorizedException("You can only accept your own appointments");
         }
 
-        // Update the appointment status to ACCEPTED
-        appointment.setStatus(AppointmentStatus.ACCEPTED);
+        // Check if the appointment is already completed or canceled
+        if (!ACTIVE_APPOINTMENT_STATUSES.contains(appointment.status())) {
+            throw new InvalidStateException("Cannot accept appointment with status: " + appointment.status());
+        }
 
-        // Get the patient and doctor from the appointment
-        User patient = appointment.getPatient();
-        Doctor doctor = appointment.getDoctor();
+        // Conditional update on the version read above, a concurrent change makes it match no row
+        int updated = appointmentRepository.transitionStatus(appointmentId, appointment.version(),
+                ACTIVE_APPOINTMENT_STATUSES, AppointmentStatus.ACCEPTED, LocalDateTime.now());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Appointment.class, appointmentId);
+        }
+        AfterCommit.run(() -> doctorStatsRegistry.onTransition(appointment.doctorId(), appointment.appointmentDate(),
+                appointment.status(), AppointmentStatus.ACCEPTED));
 
         // Add the patient to the doctor's patient list if not already added
-        if (patient.getDoctor() == null || !patient.getDoctor().getId().equals(doctor.getId())) {
-            patient.setDoctor(doctor);
-            userRepository.save(patient);
+        if (!appointment.doctorId().equals(appointment.patientDoctorId())) {
+            userRepository.assignDoctor(appointment.patientId(), doctorRepository.getReferenceById(appointment.doctorId()));
+            AfterCommit.run(() -> doctorStatsRegistry.onPatientAssigned(appointment.doctorId(), appointment.patientDoctorId()));
         }
 
-
-        appointmentRepository.save(appointment);
-        // Send an email notification to the patient
-
         return "Appointment with ID " + appointmentId + " accepted successfully. Patient " +
-                patient.getFullName() + " is now registered under Dr. " + doctor.getFullName();
+                appointment.patientFullName() + " is now registered under Dr. " + appointment.doctorFullName();
     }
 
     @Override
-    @Transactional
     public String cancelAppointment(Long appointmentId) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + appointmentId));
+        // Cancelling is idempotent, a lost race is retried against the fresh state
+        return optimisticRetry.execute(() -> doCancelAppointment(appointmentId));
+    }
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Long userId = (Long) authentication.getPrincipal();
-        // Check if the user is either the patient or the doctor
-        boolean isPatient = appointment.getPatient().getId().equals(userId);
-        boolean isDoctor = appointment.getDoctor().getUser().getId().equals(userId);
+    private String doCancelAppointment(Long appointmentId) {
+        AppointmentCommandView appointment = findAppointmentCommandView(appointmentId);
 
-        if (!isPatient && !isDoctor) {
+        // Check if the user is either the patient or the doctor
+        Long userId = currentUserId();
+        if (!appointment.isPatient(userId) && !appointment.isDoctor(userId)) {
             throw new UnAuthorizedException("You can only cancel your own appointments");
         }
 
         // Check if appointment can be canceled
-        if (appointment.getStatus().equals(AppointmentStatus.COMPLETED) ||
-                appointment.getStatus().equals(AppointmentStatus.CANCELED)) {
-            throw new InvalidStateException("Cannot cancel appointment with status: " + appointment.getStatus());
+        if (!ACTIVE_APPOINTMENT_STATUSES.contains(appointment.status())) {
+            throw new InvalidStateException("Cannot cancel appointment with status: " + appointment.status());
         }
 
-        // Update status to canceled
-        appointment.setStatus(AppointmentStatus.CANCELED);
-        appointmentRepository.save(appointment);
+        // Update status to canceled and free the slot for other patients in the same statement
+        int updated = appointmentRepository.transitionStatusAndReleaseSlot(appointmentId, appointment.version(),
+                ACTIVE_APPOINTMENT_STATUSES, AppointmentStatus.CANCELED, LocalDateTime.now());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Appointment.class, appointmentId);
+        }
+        // The cell and the counters only change once the cancellation is committed, a retried attempt never reaches here
+        AfterCommit.run(() -> {
+            appointmentReservationService.release(appointment.doctorId(), appointment.appointmentDate());
+            doctorStatsRegistry.onTransition(appointment.doctorId(), appointment.appointmentDate(),
+                    appointment.status(), AppointmentStatus.CANCELED);
+        });
 
         return "Appointment with ID " + appointmentId + " has been canceled successfully.";
     }
 
+    @Override
+    @Transactional
+    public String cancelAppointmentsOn(LocalDate date) {
+        Doctor doctor = doctorRepository.findByUser(getDoctor());
+        // One UPDATE for the whole day instead of cancelling the appointments one by one
+        int canceled = appointmentBulkService.transition(doctor.getId(), date, AppointmentStatus.CANCELED);
+        return canceled + " appointments on " + date + " have been canceled.";
+    }
+
     @Override
     public List<AppointmentDto> allAcceptedAppointments() {
-        // This method should return a list of all accepted appointments
-        List<Appointment> acceptedAppointments = appointmentRepository.findByStatus(AppointmentStatus.ACCEPTED);
+        // Only the logged-in doctor's appointments, read through the (doctor, status, date) index
+        List<Appointment> acceptedAppointments = appointmentRepository
+                .findByDoctorIdAndStatusOrderByAppointmentDateAsc(currentDoctorId(), AppointmentStatus.ACCEPTED);
         if (!acceptedAppointments.isEmpty()) {
             return acceptedAppointments.stream().map(appointmentMapper::toDto).toList();
         }
@@ -358,25 +813,17 @@ public class DoctorServicesImpl implements DoctorServices {
     @Override
     @Transactional
     public String rescheduleAppointment(Long appointmentId, LocalDateTime newAppointmentDate) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + appointmentId));
-
-        // Get the current authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Long userId = (Long) authentication.getPrincipal();
+        AppointmentCommandView appointment = findAppointmentCommandView(appointmentId);
 
         // Check if the user is either the patient or the doctor
-        boolean isPatient = appointment.getPatient().getId().equals(userId);
-        boolean isDoctor = appointment.getDoctor().getUser().getId().equals(userId);
-
-        if (!isPatient && !isDoctor) {
+        Long userId = currentUserId();
+        if (!appointment.isPatient(userId) && !appointment.isDoctor(userId)) {
             throw new UnAuthorizedException("You can only reschedule your own appointments");
         }
 
         // Check if appointment can be rescheduled
-        if (appointment.getStatus().equals(AppointmentStatus.COMPLETED) ||
-                appointment.getStatus().equals(AppointmentStatus.CANCELED)) {
-            throw new InvalidStateException("Cannot reschedule appointment with status: " + appointment.getStatus());
+        if (!ACTIVE_APPOINTMENT_STATUSES.contains(appointment.status())) {
+            throw new InvalidStateException("Cannot reschedule appointment with status: " + appointment.status());
         }
 
         // Validate new date is in the future
@@ -384,46 +831,158 @@ public class DoctorServicesImpl implements DoctorServices {
             throw new IllegalArgumentException("New appointment date must be in the future");
         }
 
-        // Check for conflicts at the new time
-        boolean hasConflict = appointment.getDoctor().getAppointments().stream()
-                .filter(apt -> !apt.getId().equals(appointmentId))
-                .anyMatch(existingAppointment ->
-                        existingAppointment.getAppointmentDate().equals(newAppointmentDate) &&
-                                (existingAppointment.getStatus().equals(AppointmentStatus.PENDING) ||
-                                        existingAppointment.getStatus().equals(AppointmentStatus.ACCEPTED)));
-
-        if (hasConflict) {
-            throw new InvalidStateException("Doctor already has an appointment at the requested time");
-        }
-
-        // Update the appointment
-        appointment.setAppointmentDate(newAppointmentDate);
-        appointment.setDate(java.sql.Date.valueOf(newAppointmentDate.toLocalDate()));
-        appointment.setTime(newAppointmentDate.toLocalTime().toString());
-
-        // If it was accepted, set it back to pending for doctor approval
-        if (appointment.getStatus().equals(AppointmentStatus.ACCEPTED)) {
-            appointment.setStatus(AppointmentStatus.PENDING);
-        }
-
-        appointmentRepository.save(appointment);
+        // Move the appointment back to pending for doctor approval, the reservation service rejects the
+        // new time if the doctor's slot is taken
+        appointmentReservationService.reschedule(appointment, newAppointmentDate);
 
         return String.format("Appointment with ID %d has been rescheduled to %s. Status: %s",
                 appointmentId,
                 newAppointmentDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
-                appointment.getStatus());
+                AppointmentStatus.PENDING);
     }
 
     @Override
     public List<AppointmentDto> allRejectedAppointments() {
-        // This method should return a list of all rejected appointments
-        List<Appointment> rejectedAppointments = appointmentRepository.findByStatus(AppointmentStatus.REJECTED);
+        // Only the logged-in doctor's appointments, read through the (doctor, status, date) index
+        List<Appointment> rejectedAppointments = appointmentRepository
+                .findByDoctorIdAndStatusOrderByAppointmentDateAsc(currentDoctorId(), AppointmentStatus.REJECTED);
         if (rejectedAppointments.isEmpty()) {
             throw new ResourceNotFoundException("No rejected appointments found");
         }
         return rejectedAppointments.stream().map(appointmentMapper::toDto).toList();
     }
 
+    @Override
+    public KeysetPageDto<AppointmentInboxItemDto> appointmentInbox(Set<AppointmentStatus> statuses, LocalDate from,
+                                                                   LocalDate to, Long patientId, String cursor, int size) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        AppointmentInboxFilter filter = new AppointmentInboxFilter(currentDoctorId(), statuses,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                patientId);
+        InboxCursor after = cursor != null && !cursor.isBlank() ? InboxCursor.decode(cursor) : null;
+        // One extra row tells whether another page follows
+        List<AppointmentInboxItemDto> rows = appointmentRepository.findInbox(filter,
+                after != null ? after.appointmentDate() : null,
+                after != null ? after.appointmentId() : null,
+                size + 1);
+        boolean hasNext = rows.size() > size;
+        List<AppointmentInboxItemDto> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AppointmentInboxItemDto last = content.get(content.size() - 1);
+            nextCursor = new InboxCursor(last.getAppointmentDate(), last.getId()).encode();
+        }
+        return new KeysetPageDto<>(List.copyOf(content), nextCursor, hasNext);
+    }
+
+    @Override
+    public DoctorDashboardDto getDashboard() {
+        Long doctorId = currentDoctorId();
+        DoctorStatsRegistry.DoctorStats stats = doctorStatsRegistry.stats(doctorId);
+        return new DoctorDashboardDto(doctorId, stats.total(), stats.today(), stats.pending(), stats.accepted(),
+                stats.canceled(), stats.patients());
+    }
+
+    private AppointmentCommandView findAppointmentCommandView(Long appointmentId) {
+        return appointmentRepository.findCommandView(appointmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + appointmentId));
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (Long) authentication.getPrincipal();
+    }
+
+    private Long currentDoctorId() {
+        return doctorRepository.findIdByUserId(currentUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User is not a doctor"));
+    }
+
+    private AvailabilitySlot toSlot(Long doctorId, AvailabilityDto availabilityDto) {
+        if (availabilityDto == null) {
+            throw new IllegalArgumentException("Availability cannot be null");
+        }
+        String time = normalizeTime(availabilityDto.getTime());
+        Day day = availabilityDto.getDay();
+        if (availabilityDto.getDate() != null) {
+            Day dateDay = Day.valueOf(new java.sql.Date(availabilityDto.getDate().getTime()).toLocalDate().getDayOfWeek().name());
+            if (day != null && day != dateDay) {
+                throw new IllegalArgumentException("Day " + day + " does not match date, which is a " + dateDay);
+            }
+            day = dateDay;
+        } else if (day == null) {
+            throw new IllegalArgumentException("Either a day or a date is required");
+        }
+        return new AvailabilitySlot(null, doctorId, day, time, availabilityDto.getDate(), availabilityDto.isAvailable());
+    }
+
+    /**
+     * Canonical "HH:mm[:ss]" form of a slot time, also accepting a single-digit hour such as "9:00"
+     */
+    private static String normalizeTime(String time) {
+        if (time == null || time.isBlank()) {
+            throw new IllegalArgumentException("Time is required");
+        }
+        try {
+            return LocalTime.parse(time.trim(), SLOT_TIME_FORMAT).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time: " + time);
+        }
+    }
+
+    private AvailabilityRule findOwnedAvailabilityRule(Long ruleId, Doctor doctor) {
+        AvailabilityRule rule = availabilityRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability rule not found with id: " + ruleId));
+        if (!rule.getDoctor().getId().equals(doctor.getId())) {
+            throw new ResourceNotFoundException("Availability rule does not belong to the doctor");
+        }
+        return rule;
+    }
+
+    private void validateAvailabilityRule(AvailabilityRuleDto availabilityRuleDto) {
+        if (!availabilityRuleDto.getStartTime().isBefore(availabilityRuleDto.getEndTime())) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        // Rule slots are projected onto the calendar bitmaps, so they have to line up with the calendar grid
+        int slotMinutes = availabilityRuleDto.getSlotMinutes();
+        if (slotMinutes <= 0 || slotMinutes % DoctorCalendar.SLOT_MINUTES != 0) {
+            throw new IllegalArgumentException("Slot length must be a multiple of " + DoctorCalendar.SLOT_MINUTES + " minutes");
+        }
+        LocalTime startTime = availabilityRuleDto.getStartTime();
+        if (startTime.getSecond() != 0 || startTime.getNano() != 0 || startTime.getMinute() % DoctorCalendar.SLOT_MINUTES != 0) {
+            throw new IllegalArgumentException("Start time must be on a " + DoctorCalendar.SLOT_MINUTES + " minute boundary");
+        }
+        if (availabilityRuleDto.getValidFrom() != null && availabilityRuleDto.getValidUntil() != null
+                && availabilityRuleDto.getValidUntil().isBefore(availabilityRuleDto.getValidFrom())) {
+            throw new IllegalArgumentException("End of validity must not be before its start");
+        }
+    }
+
+    private AvailabilityRuleDto toAvailabilityRuleDto(AvailabilityRule rule) {
+        AvailabilityRuleDto ruleDto = new AvailabilityRuleDto();
+        ruleDto.setId(rule.getId());
+        ruleDto.setDays(rule.getDays());
+        ruleDto.setStartTime(rule.getStartTime());
+        ruleDto.setEndTime(rule.getEndTime());
+        ruleDto.setSlotMinutes(rule.getSlotMinutes());
+        ruleDto.setValidFrom(rule.getValidFrom());
+        ruleDto.setValidUntil(rule.getValidUntil());
+        ruleDto.setExclusions(rule.getExclusions().stream()
+                .sorted(Comparator.comparing(AvailabilityRuleExclusion::getDate))
+                .map(exclusion -> {
+                    AvailabilityRuleExclusionDto exclusionDto = new AvailabilityRuleExclusionDto();
+                    exclusionDto.setDate(exclusion.getDate());
+                    exclusionDto.setStartTime(exclusion.getStartTime());
+                    exclusionDto.setReason(exclusion.getReason());
+                    return exclusionDto;
+                })
+                .toList());
+        return ruleDto;
+    }
+
     private User getDoctor() {
         //this method retrieves the currently authenticated user and checks if they are a doctor
         // Get the currently authenticated user
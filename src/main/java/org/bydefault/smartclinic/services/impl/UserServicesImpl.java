@@ -3,6 +3,7 @@ package org.bydefault.smartclinic.services.impl;
 import lombok.RequiredArgsConstructor;
 import org.bydefault.smartclinic.dtos.common.AppointmentDto;
 import org.bydefault.smartclinic.dtos.common.DoctorDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
 import org.bydefault.smartclinic.dtos.common.MedicalReportDto;
 import org.bydefault.smartclinic.email.EmailService;
 import org.bydefault.smartclinic.entities.*;
@@ -16,12 +17,14 @@ import org.bydefault.smartclinic.repository.AppointmentRepository;
 import org.bydefault.smartclinic.repository.DoctorRepository;
 import org.bydefault.smartclinic.repository.MedicalReportRepository;
 import org.bydefault.smartclinic.repository.UserRepository;
+import org.bydefault.smartclinic.services.appointment.AppointmentReservationService;
+import org.bydefault.smartclinic.services.calendar.DoctorCalendar;
+import org.bydefault.smartclinic.services.catalog.DoctorDirectory;
 import org.bydefault.smartclinic.services.users.UserServices;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -37,8 +40,11 @@ public class UserServicesImpl implements UserServices {
     private final AppointmentRepository appointmentRepository;
     private final MedicalReportRepository medicalReportRepository;
     private final DoctorMapper doctorMapper;
+    private final DoctorDirectory doctorDirectory;
     private final AppointmentMapper appointmentMapper;
     private final MedicalReportMapper medicalReportMapper;
+    private final DoctorCalendar doctorCalendar;
+    private final AppointmentReservationService appointmentReservationService;
 
     @Override
     public String makeAppointment(Long doctorId, LocalDateTime appointmentDate, String description) {
@@ -58,27 +64,13 @@ public class UserServicesImpl implements UserServices {
         if (appointmentDate.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Appointment date cannot be in the past.");
         }
-        LocalDate requestedDate = appointmentDate.toLocalDate();
-        List<Availability> availabilities = doctor.getAvailableTimeSlots(requestedDate);
-        if (availabilities.isEmpty()) {
-            throw new ResourceNotFoundException("No available time slots for doctor with id: " + doctorId + " on date: " + requestedDate);
+        // O(1) bitmap check: the slot must be open and not booked yet
+        if (!doctorCalendar.isFree(doctorId, appointmentDate)) {
+            throw new ResourceNotFoundException("No available time slot for doctor with id: " + doctorId + " at: " +
+                    appointmentDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
         }
-        boolean hasConflict = doctor.getAppointments().stream()
-                .anyMatch(existingAppointment ->
-                        existingAppointment.getAppointmentDate().equals(appointmentDate) &&
-                                (existingAppointment.getStatus().equals(AppointmentStatus.PENDING) ||
-                                        existingAppointment.getStatus().equals(AppointmentStatus.ACCEPTED)));
-
-        if (hasConflict) {
-            throw new IllegalStateException("Doctor already has an appointment at the requested time");
-        }
-        Appointment appointment = new Appointment();
-        appointment.setDoctor(doctor);
-        appointment.setAppointmentDate(appointmentDate);
-        appointment.setDate(java.sql.Date.valueOf(requestedDate));
-        appointment.setTime(appointmentDate.toLocalTime().toString());
-        appointment.setDescription(description != null ? description : "");
-        appointmentRepository.save(appointment);
+        // Claim the doctor's slot atomically, a concurrent booking of the same slot is rejected
+        Appointment appointment = appointmentReservationService.reserve(doctor, user, appointmentDate, description);
 
         return "Appointment scheduled successfully with Dr. " + doctor.getFullName() +
                 " for " + appointmentDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) +
@@ -87,16 +79,16 @@ public class UserServicesImpl implements UserServices {
 
     @Override
     public DoctorDto viewDoctorProfile(Long doctorId) {
-        Doctor doctor = doctorRepository.findById(doctorId)
+        // The detail view is the only one carrying availabilities, fetched with the doctor in one query
+        Doctor doctor = doctorRepository.findDetailById(doctorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
 
         return doctorMapper.toDto(doctor);
     }
 
     @Override
-    public List<DoctorDto> allDoctor() {
-        List<Doctor> doctors = doctorRepository.findAllByAccepted(true);
-        return doctors.stream().map(doctorMapper::toDto).toList();
+    public DoctorDirectory.Snapshot allDoctor() {
+        return doctorDirectory.snapshot();
     }
 
     @Override
@@ -172,12 +164,12 @@ public class UserServicesImpl implements UserServices {
     }
 
     @Override
-    public List<DoctorDto> allDoctorBySpecialty(String specialtyName) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyName(specialtyName);
+    public List<DoctorListItemDto> allDoctorBySpecialty(String specialtyName) {
+        List<DoctorListItemDto> doctors = doctorRepository.findListItemsBySpecialtyName(specialtyName);
         if (doctors.isEmpty()) {
             throw new ResourceNotFoundException("No doctors found with specialty: " + specialtyName);
         }
-        return doctors.stream().map(doctorMapper::toDto).collect(Collectors.toList());
+        return doctors;
     }
 
 }
@@ -0,0 +1,32 @@
+package org.bydefault.smartclinic.services.ranking;
+
+import lombok.RequiredArgsConstructor;
+import org.bydefault.smartclinic.services.calendar.DoctorCalendar;
+import org.bydefault.smartclinic.services.stats.DoctorStatsRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Favours doctors with fewer bookings today and a shorter pending queue, to spread demand
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingLoadScorer implements DoctorScorer {
+
+    // Pending requests weigh less than today's confirmed workload
+    private static final double PENDING_FACTOR = 0.5;
+
+    private final DoctorCalendar doctorCalendar;
+    private final DoctorStatsRegistry doctorStatsRegistry;
+
+    @Override
+    public double weight() {
+        return 0.4;
+    }
+
+    @Override
+    public double score(RankingCandidate candidate, RankingContext context) {
+        int bookedToday = Long.bitCount(doctorCalendar.busyMask(candidate.doctorId(), context.now().toLocalDate()));
+        double load = bookedToday + PENDING_FACTOR * doctorStatsRegistry.pending(candidate.doctorId());
+        return 1.0 / (1.0 + load);
+    }
+}
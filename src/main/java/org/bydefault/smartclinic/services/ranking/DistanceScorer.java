@@ -0,0 +1,23 @@
+package org.bydefault.smartclinic.services.ranking;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Closeness to the searched point, 1 on the spot and 0 at the edge of the search radius
+ */
+@Component
+public class DistanceScorer implements DoctorScorer {
+
+    @Override
+    public double weight() {
+        return 1.0;
+    }
+
+    @Override
+    public double score(RankingCandidate candidate, RankingContext context) {
+        if (candidate.distanceKm() == null || context.radiusKm() == null || context.radiusKm() <= 0) {
+            return 0.0;
+        }
+        return 1.0 - Math.min(1.0, candidate.distanceKm() / context.radiusKm());
+    }
+}
@@ -0,0 +1,37 @@
+package org.bydefault.smartclinic.services.ranking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders search candidates by the weighted sum of every {@link DoctorScorer}.
+ * <p>
+ * Signals a query does not carry (no text, no location) score 0 for every candidate and so do not change the
+ * order. Ties keep the order the candidates came in.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorRanker {
+
+    private final List<DoctorScorer> scorers;
+
+    public List<RankingCandidate> rank(List<RankingCandidate> candidates, RankingContext context) {
+        List<Scored> scored = new ArrayList<>(candidates.size());
+        for (RankingCandidate candidate : candidates) {
+            double score = 0.0;
+            for (DoctorScorer scorer : scorers) {
+                score += scorer.weight() * scorer.score(candidate, context);
+            }
+            scored.add(new Scored(candidate, score));
+        }
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return scored.stream().map(Scored::candidate).toList();
+    }
+
+    private record Scored(RankingCandidate candidate, double score) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.bydefault.smartclinic.services.ranking;
+
+/**
+ * One signal of the doctor ranking. Every scorer bean takes part in the blended score of {@link DoctorRanker}.
+ */
+public interface DoctorScorer {
+
+    /**
+     * Relative importance of this signal in the blended score
+     */
+    double weight();
+
+    /**
+     * Score of a candidate between 0 and 1, higher ranks first
+     */
+    double score(RankingCandidate candidate, RankingContext context);
+}
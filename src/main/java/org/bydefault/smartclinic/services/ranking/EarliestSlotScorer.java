@@ -0,0 +1,34 @@
+package org.bydefault.smartclinic.services.ranking;
+
+import lombok.RequiredArgsConstructor;
+import org.bydefault.smartclinic.services.calendar.DoctorCalendar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * How soon the doctor can see a patient, halving for every day of wait
+ */
+@Component
+@RequiredArgsConstructor
+public class EarliestSlotScorer implements DoctorScorer {
+
+    private final DoctorCalendar doctorCalendar;
+
+    @Override
+    public double weight() {
+        return 0.4;
+    }
+
+    @Override
+    public double score(RankingCandidate candidate, RankingContext context) {
+        Optional<LocalDateTime> earliest = doctorCalendar.earliestFreeSlot(candidate.doctorId(), context.now());
+        if (earliest.isEmpty()) {
+            return 0.0;
+        }
+        double days = Duration.between(context.now(), earliest.get()).toMinutes() / (24.0 * 60);
+        return 1.0 / (1.0 + days);
+    }
+}
@@ -0,0 +1,7 @@
+package org.bydefault.smartclinic.services.ranking;
+
+/**
+ * A doctor to rank with the signals known from the query that found it, distance is null without a location
+ */
+public record RankingCandidate(Long doctorId, double relevance, Double distanceKm) {
+}
@@ -0,0 +1,12 @@
+package org.bydefault.smartclinic.services.ranking;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the scorers need to know about the query as a whole
+ *
+ * @param maxRelevance highest text relevance among the candidates, 0 when the query had no text
+ * @param radiusKm     search radius, null when the query had no location
+ */
+public record RankingContext(LocalDateTime now, double maxRelevance, Double radiusKm) {
+}
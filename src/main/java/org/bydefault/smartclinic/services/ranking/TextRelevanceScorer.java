@@ -0,0 +1,20 @@
+package org.bydefault.smartclinic.services.ranking;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Full-text relevance relative to the best match of the query
+ */
+@Component
+public class TextRelevanceScorer implements DoctorScorer {
+
+    @Override
+    public double weight() {
+        return 1.0;
+    }
+
+    @Override
+    public double score(RankingCandidate candidate, RankingContext context) {
+        return context.maxRelevance() > 0 ? candidate.relevance() / context.maxRelevance() : 0.0;
+    }
+}
@@ -0,0 +1,207 @@
+package org.bydefault.smartclinic.services.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.Doctor;
+import org.bydefault.smartclinic.repository.DoctorRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Grid spatial index over the accepted doctors that have coordinates.
+ * <p>
+ * The globe is cut into cells of {@link #CELL_DEGREES} degrees. Nearest-doctor queries visit the cells in rings
+ * around the query point and stop as soon as no unvisited cell can hold a closer doctor, so a query only
+ * touches the doctors around the patient instead of the whole network.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoctorGeoIndex {
+
+    public static final double CELL_DEGREES = 0.1;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final double CELL_KM = CELL_DEGREES * KM_PER_DEGREE;
+    private static final int LNG_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+
+    private final DoctorRepository doctorRepository;
+
+    private final Map<Long, GeoEntry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Doctor> doctors = doctorRepository.findWithSpecialtyAndUserByAccepted(true);
+        synchronized (this) {
+            entries.clear();
+            cells.clear();
+            doctors.forEach(this::put);
+        }
+        log.info("Doctor geo index loaded with {} located doctors", entries.size());
+    }
+
+    /**
+     * Index or re-index a doctor, only accepted doctors with coordinates are searchable
+     */
+    public void put(Doctor doctor) {
+        replace(doctor.getId(), entryOf(doctor));
+    }
+
+    /**
+     * Read the doctor's position now and index it once the surrounding transaction commits
+     */
+    public void putAfterCommit(Doctor doctor) {
+        Long doctorId = doctor.getId();
+        GeoEntry entry = entryOf(doctor);
+        AfterCommit.run(() -> replace(doctorId, entry));
+    }
+
+    public void removeAfterCommit(Long doctorId) {
+        AfterCommit.run(() -> remove(doctorId));
+    }
+
+    private static GeoEntry entryOf(Doctor doctor) {
+        if (!doctor.isAccepted() || doctor.getLatitude() == null || doctor.getLongitude() == null) {
+            return null;
+        }
+        Long specialtyId = doctor.getSpecialty() != null ? doctor.getSpecialty().getId() : null;
+        return new GeoEntry(doctor.getId(), doctor.getLatitude(), doctor.getLongitude(), specialtyId);
+    }
+
+    private synchronized void replace(Long doctorId, GeoEntry entry) {
+        remove(doctorId);
+        if (entry == null) {
+            return;
+        }
+        entries.put(entry.doctorId(), entry);
+        cells.computeIfAbsent(cellOf(entry.latitude(), entry.longitude()), key -> ConcurrentHashMap.newKeySet())
+                .add(entry.doctorId());
+    }
+
+    public synchronized void remove(Long doctorId) {
+        GeoEntry previous = entries.remove(doctorId);
+        if (previous == null) {
+            return;
+        }
+        cells.computeIfPresent(cellOf(previous.latitude(), previous.longitude()), (key, doctorIds) -> {
+            doctorIds.remove(doctorId);
+            return doctorIds.isEmpty() ? null : doctorIds;
+        });
+    }
+
+    /**
+     * The closest doctors to a point within a radius, nearest first, keeping only those the filter accepts
+     */
+    public List<NearbyDoctor> nearest(double latitude, double longitude, double radiusKm, int limit, Predicate<GeoEntry> filter) {
+        int centerLat = latCell(latitude);
+        int centerLng = lngCell(longitude);
+        int maxRing = (int) Math.ceil(radiusKm / CELL_KM);
+
+        PriorityQueue<NearbyDoctor> best = new PriorityQueue<>(Comparator.comparingDouble(NearbyDoctor::distanceKm).reversed());
+        for (int ring = 0; ring <= maxRing && ring <= LAT_CELLS; ring++) {
+            int lngReach = lngReach(latitude, ring);
+            int innerLngReach = ring == 0 ? -1 : lngReach(latitude, ring - 1);
+            // Once the ring wraps the whole parallel, both ends of the reach are the same cell
+            int lastLng = lngReach == LNG_CELLS / 2 ? lngReach - 1 : lngReach;
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                int lat = centerLat + dLat;
+                if (lat < 0 || lat >= LAT_CELLS) {
+                    continue;
+                }
+                for (int dLng = -lngReach; dLng <= lastLng; dLng++) {
+                    // Cells of the previous rings were already visited
+                    if (Math.abs(dLat) <= ring - 1 && Math.abs(dLng) <= innerLngReach) {
+                        continue;
+                    }
+                    Set<Long> doctorIds = cells.get(cellKey(lat, Math.floorMod(centerLng + dLng, LNG_CELLS)));
+                    if (doctorIds == null) {
+                        continue;
+                    }
+                    for (Long doctorId : doctorIds) {
+                        GeoEntry entry = entries.get(doctorId);
+                        if (entry == null) {
+                            continue;
+                        }
+                        double distance = distanceKm(latitude, longitude, entry.latitude(), entry.longitude());
+                        if (distance > radiusKm || (best.size() == limit && distance >= best.peek().distanceKm())
+                                || !filter.test(entry)) {
+                            continue;
+                        }
+                        best.add(new NearbyDoctor(doctorId, distance));
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+            // Anything outside this ring is at least ring * CELL_KM away
+            if (best.size() == limit && best.peek().distanceKm() <= ring * CELL_KM) {
+                break;
+            }
+        }
+        List<NearbyDoctor> nearest = new ArrayList<>(best);
+        nearest.sort(Comparator.comparingDouble(NearbyDoctor::distanceKm).thenComparing(NearbyDoctor::doctorId));
+        return nearest;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Great-circle distance between two points
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Longitude cells a ring must reach so that every cell beyond it is at least {@code ring * CELL_KM} away.
+     * <p>
+     * A meridian {@code dLng} away from a point at latitude {@code lat} comes no closer than {@code asin(sin(dLng) * cos(lat))},
+     * so the reach widens towards the poles and covers the whole parallel once the ring can pass over the pole.
+     */
+    private static int lngReach(double latitude, int ring) {
+        double ringDegrees = ring * CELL_DEGREES;
+        if (ringDegrees >= 90 - Math.abs(latitude)) {
+            return LNG_CELLS / 2;
+        }
+        double reachDegrees = Math.toDegrees(Math.asin(Math.min(1,
+                Math.sin(Math.toRadians(ringDegrees)) / Math.cos(Math.toRadians(latitude)))));
+        return Math.min((int) Math.ceil(reachDegrees / CELL_DEGREES), LNG_CELLS / 2);
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return cellKey(latCell(latitude), lngCell(longitude));
+    }
+
+    private static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    private static int lngCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LNG_CELLS);
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return (long) latCell * LNG_CELLS + lngCell;
+    }
+
+    public record GeoEntry(Long doctorId, double latitude, double longitude, Long specialtyId) {
+    }
+
+    public record NearbyDoctor(Long doctorId, double distanceKm) {
+    }
+}
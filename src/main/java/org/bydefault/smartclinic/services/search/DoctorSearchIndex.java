@@ -0,0 +1,258 @@
+package org.bydefault.smartclinic.services.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.Doctor;
+import org.bydefault.smartclinic.entities.Specialty;
+import org.bydefault.smartclinic.entities.User;
+import org.bydefault.smartclinic.repository.DoctorRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory inverted index over the accepted doctors.
+ * <p>
+ * Every term of a doctor's name, specialty, location and qualifications maps to the doctors it appears in,
+ * weighted by the field it comes from. Queries match terms exactly, by prefix and, for longer words, within
+ * one or two typos, and rank the doctors matching every query word by a field-weighted tf-idf score. The
+ * term dictionary is sorted, so prefix and typo candidates are range scans instead of full scans.
+ * The index is loaded at startup and kept current by the doctor write paths.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoctorSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float SPECIALTY_WEIGHT = 3f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float QUALIFICATION_WEIGHT = 1f;
+    private static final float SPECIALTY_DESCRIPTION_WEIGHT = 0.5f;
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.7;
+    private static final double FUZZY_MATCH = 0.5;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_TWO_TYPOS_LENGTH = 8;
+
+    private final DoctorRepository doctorRepository;
+
+    // term -> doctor id -> field-weighted term frequency
+    private final Map<String, Map<Long, Float>> postings = new ConcurrentHashMap<>();
+    // doctor id -> its terms, needed to take a doctor out of the postings
+    private final Map<Long, Map<String, Float>> documents = new ConcurrentHashMap<>();
+    private final NavigableSet<String> dictionary = new ConcurrentSkipListSet<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Doctor> doctors = doctorRepository.findWithSpecialtyAndUserByAccepted(true);
+        synchronized (this) {
+            postings.clear();
+            documents.clear();
+            dictionary.clear();
+            doctors.forEach(this::put);
+        }
+        log.info("Doctor search index loaded with {} doctors and {} terms", documents.size(), dictionary.size());
+    }
+
+    /**
+     * Index or re-index a doctor, only accepted doctors are searchable
+     */
+    public void put(Doctor doctor) {
+        replace(doctor.getId(), termsOf(doctor));
+    }
+
+    /**
+     * Read the doctor's terms now and index them once the surrounding transaction commits
+     */
+    public void putAfterCommit(Doctor doctor) {
+        Long doctorId = doctor.getId();
+        Map<String, Float> terms = termsOf(doctor);
+        AfterCommit.run(() -> replace(doctorId, terms));
+    }
+
+    public void removeAfterCommit(Long doctorId) {
+        AfterCommit.run(() -> remove(doctorId));
+    }
+
+    private Map<String, Float> termsOf(Doctor doctor) {
+        Map<String, Float> terms = new HashMap<>();
+        if (!doctor.isAccepted()) {
+            return terms;
+        }
+        User user = doctor.getUser();
+        if (user != null) {
+            addTerms(terms, user.getFirstName(), NAME_WEIGHT);
+            addTerms(terms, user.getLastName(), NAME_WEIGHT);
+        }
+        Specialty specialty = doctor.getSpecialty();
+        if (specialty != null) {
+            addTerms(terms, specialty.getName(), SPECIALTY_WEIGHT);
+            addTerms(terms, specialty.getDescription(), SPECIALTY_DESCRIPTION_WEIGHT);
+        }
+        addTerms(terms, doctor.getLocation(), LOCATION_WEIGHT);
+        addTerms(terms, doctor.getHighersQualifications(), QUALIFICATION_WEIGHT);
+        addTerms(terms, doctor.getAnyOtherQualifications(), QUALIFICATION_WEIGHT);
+        return terms;
+    }
+
+    private synchronized void replace(Long doctorId, Map<String, Float> terms) {
+        remove(doctorId);
+        if (terms.isEmpty()) {
+            return;
+        }
+        documents.put(doctorId, terms);
+        terms.forEach((term, weight) -> {
+            postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(doctorId, weight);
+            dictionary.add(term);
+        });
+    }
+
+    public synchronized void remove(Long doctorId) {
+        Map<String, Float> terms = documents.remove(doctorId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            postings.computeIfPresent(term, (key, doctors) -> {
+                doctors.remove(doctorId);
+                if (doctors.isEmpty()) {
+                    dictionary.remove(term);
+                    return null;
+                }
+                return doctors;
+            });
+        }
+    }
+
+    /**
+     * Text relevance of every doctor matching every word of the query
+     */
+    public Map<Long, Double> score(String query) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return Map.of();
+        }
+        int documentCount = Math.max(1, documents.size());
+        Map<Long, Double> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            matchingTerms(queryTerm).forEach((term, match) -> {
+                Map<Long, Float> doctors = postings.get(term);
+                if (doctors == null) {
+                    return;
+                }
+                double idf = Math.log(1.0 + (double) documentCount / doctors.size());
+                doctors.forEach((doctorId, weight) -> termScores.merge(doctorId, match * weight * idf, Math::max));
+            });
+            // Every query word has to match, so the candidate set only ever shrinks
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Long, Double> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Long, Double> entry : termScores.entrySet()) {
+                    Double score = previous.get(entry.getKey());
+                    if (score != null) {
+                        scores.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return Map.of();
+            }
+        }
+        return scores;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Dictionary terms a query word matches, with the strength of the match
+     */
+    private Map<String, Double> matchingTerms(String queryTerm) {
+        Map<String, Double> matches = new HashMap<>();
+        if (dictionary.contains(queryTerm)) {
+            matches.put(queryTerm, EXACT_MATCH);
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : dictionary.subSet(queryTerm, false, queryTerm + Character.MAX_VALUE, false)) {
+                matches.putIfAbsent(term, PREFIX_MATCH);
+            }
+        }
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            int maxDistance = queryTerm.length() >= MIN_TWO_TYPOS_LENGTH ? 2 : 1;
+            // Typos in the first letter are rare, restricting candidates to it keeps the scan to a dictionary range
+            String first = queryTerm.substring(0, 1);
+            for (String term : dictionary.subSet(first, true, first + Character.MAX_VALUE, false)) {
+                if (!matches.containsKey(term)
+                        && Math.abs(term.length() - queryTerm.length()) <= maxDistance
+                        && withinDistance(queryTerm, term, maxDistance)) {
+                    matches.put(term, FUZZY_MATCH);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        // Strip accents so that "Yaoundé" and "yaounde" are the same term
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Bounded Levenshtein distance check, gives up as soon as a row exceeds the bound
+     */
+    static boolean withinDistance(String a, String b, int maxDistance) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxDistance;
+    }
+}
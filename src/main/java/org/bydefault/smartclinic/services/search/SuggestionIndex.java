@@ -0,0 +1,70 @@
+package org.bydefault.smartclinic.services.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.dtos.common.SuggestionDto;
+import org.bydefault.smartclinic.repository.DoctorRepository;
+import org.bydefault.smartclinic.repository.SpecialtyRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Type-ahead suggestions over specialty and accepted doctor names.
+ * <p>
+ * Lookups read the current {@link SuggestionTrie} without locking. Changes rebuild a complete new trie from the
+ * database and swap it in, so readers always see a consistent snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndex {
+
+    private final SpecialtyRepository specialtyRepository;
+    private final DoctorRepository doctorRepository;
+
+    private final AtomicReference<SuggestionTrie> trie = new AtomicReference<>(SuggestionTrie.empty());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+        log.info("Suggestion index loaded with {} entries", trie.get().size());
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return trie.get().suggest(prefix, limit);
+    }
+
+    /**
+     * Rebuild the trie once the current transaction commits, or right away outside of one
+     */
+    public void rebuildAfterCommit() {
+        AfterCommit.run(this::rebuild);
+    }
+
+    // Serialised so that a slow rebuild never overwrites the result of a later one
+    public synchronized void rebuild() {
+        List<SuggestionTrie.Entry> entries = new ArrayList<>();
+        for (SuggestionSource specialty : specialtyRepository.findSuggestionSources()) {
+            // Specialties rank above doctors, the busiest ones first
+            entries.add(new SuggestionTrie.Entry(
+                    new SuggestionDto(SuggestionDto.Type.SPECIALTY, specialty.id(), specialty.name()),
+                    List.of(specialty.name()),
+                    specialty.weight() + 1));
+        }
+        for (SuggestionSource doctor : doctorRepository.findSuggestionSources()) {
+            // Doctors are found by their full name and by their last name alone
+            List<String> keys = doctor.firstName() == null || doctor.lastName() == null
+                    ? List.of(doctor.name())
+                    : List.of(doctor.name(), doctor.lastName());
+            entries.add(new SuggestionTrie.Entry(
+                    new SuggestionDto(SuggestionDto.Type.DOCTOR, doctor.id(), doctor.name()), keys, 0));
+        }
+        trie.set(SuggestionTrie.build(entries));
+    }
+}
@@ -0,0 +1,19 @@
+package org.bydefault.smartclinic.services.search;
+
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Name of a specialty or doctor as read for the suggestion trie, with its rank weight
+ */
+public record SuggestionSource(Long id, String firstName, String lastName, Long weight) {
+
+    public SuggestionSource(Long id, String name, Long weight) {
+        this(id, name, null, weight);
+    }
+
+    public String name() {
+        return Stream.of(firstName, lastName).filter(Objects::nonNull).collect(Collectors.joining(" "));
+    }
+}
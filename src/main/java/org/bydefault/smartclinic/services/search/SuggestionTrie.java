@@ -0,0 +1,131 @@
+package org.bydefault.smartclinic.services.search;
+
+import org.bydefault.smartclinic.dtos.common.SuggestionDto;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Immutable prefix trie for type-ahead suggestions.
+ * <p>
+ * Every node stores the best {@link #MAX_SUGGESTIONS} suggestions of its subtree, computed once when the trie is
+ * built, so a lookup walks the prefix and returns a precomputed list without visiting the subtree. A trie is never
+ * modified after {@link #build(Collection)}; changes are published by building a new one.
+ */
+public final class SuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparing(entry -> entry.suggestion().getLabel(), String.CASE_INSENSITIVE_ORDER);
+
+    private static final SuggestionTrie EMPTY = new SuggestionTrie(new Node(new char[0], new Node[0], List.of()), 0);
+
+    private final Node root;
+    private final int size;
+
+    private SuggestionTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static SuggestionTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a trie where each entry can be found by any of its keys
+     */
+    public static SuggestionTrie build(Collection<Entry> entries) {
+        Builder root = new Builder();
+        for (Entry entry : entries) {
+            for (String key : entry.keys()) {
+                String normalized = normalize(key);
+                if (normalized.isEmpty()) {
+                    continue;
+                }
+                Builder node = root;
+                for (int i = 0; i < normalized.length(); i++) {
+                    node = node.children.computeIfAbsent(normalized.charAt(i), c -> new Builder());
+                }
+                node.entries.add(entry);
+            }
+        }
+        return new SuggestionTrie(root.freeze(), entries.size());
+    }
+
+    /**
+     * Best suggestions whose keys start with the given prefix
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.stream().limit(limit).map(Entry::suggestion).toList();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Lower-case, accent-free form with single spaces, used both for keys and for queries
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    /**
+     * A suggestion, the keys it is found by and its rank weight (higher first)
+     */
+    public record Entry(SuggestionDto suggestion, List<String> keys, long weight) {
+    }
+
+    private record Node(char[] labels, Node[] children, List<Entry> top) {
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private final List<Entry> entries = new ArrayList<>();
+
+        Node freeze() {
+            char[] labels = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            // An entry reachable through several keys of this subtree is only suggested once
+            Map<SuggestionDto, Entry> candidates = new LinkedHashMap<>();
+            entries.forEach(entry -> candidates.putIfAbsent(entry.suggestion(), entry));
+            int i = 0;
+            for (Map.Entry<Character, Builder> child : children.entrySet()) {
+                labels[i] = child.getKey();
+                nodes[i] = child.getValue().freeze();
+                nodes[i].top().forEach(entry -> candidates.putIfAbsent(entry.suggestion(), entry));
+                i++;
+            }
+            List<Entry> top = candidates.values().stream()
+                    .sorted(RANKING)
+                    .limit(MAX_SUGGESTIONS)
+                    .toList();
+            return new Node(labels, nodes, top);
+        }
+    }
+}
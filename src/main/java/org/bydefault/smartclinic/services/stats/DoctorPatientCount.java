@@ -0,0 +1,7 @@
+package org.bydefault.smartclinic.services.stats;
+
+/**
+ * Number of patients registered under a doctor, as aggregated by the database
+ */
+public record DoctorPatientCount(Long doctorId, Long count) {
+}
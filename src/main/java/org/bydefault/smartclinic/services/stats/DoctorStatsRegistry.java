@@ -0,0 +1,216 @@
+package org.bydefault.smartclinic.services.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+import org.bydefault.smartclinic.repository.AppointmentRepository;
+import org.bydefault.smartclinic.repository.UserRepository;
+import org.bydefault.smartclinic.services.concurrency.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-doctor appointment and patient counters.
+ * <p>
+ * Counters are aggregated by the database at startup and then moved by the appointment write paths, so load
+ * signals and dashboards are a map lookup instead of a walk over a doctor's appointments. Bulk operations, which
+ * do not report the statuses they left, reload the counters instead. A scheduled reconciliation aggregates them
+ * again to correct any drift and to roll the date-bound counters over to the new day.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoctorStatsRegistry {
+
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+
+    private volatile Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int drifted = reload();
+        log.info("Doctor stats loaded for {} doctors", counters.size());
+        if (drifted > 0) {
+            log.debug("{} doctors had stale counters", drifted);
+        }
+    }
+
+    /**
+     * Aggregate the counters again, runs on every tick so the day's counters roll over at midnight
+     */
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        int drifted = reload();
+        if (drifted > 0) {
+            log.info("Doctor stats reconciled, {} of {} doctors had drifted", drifted, counters.size());
+        }
+    }
+
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::load);
+    }
+
+    /**
+     * A new appointment was booked, new appointments always start as pending
+     */
+    public void onBooked(Long doctorId, LocalDateTime appointmentDate) {
+        onTransition(doctorId, appointmentDate, null, AppointmentStatus.PENDING);
+    }
+
+    /**
+     * An appointment moved between statuses, a null status stands for an appointment created or removed
+     */
+    public void onTransition(Long doctorId, LocalDateTime appointmentDate, AppointmentStatus from, AppointmentStatus to) {
+        if (from == to) {
+            return;
+        }
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        // Only pending, accepted and today's counters are bound to the date, past appointments still count in totals
+        boolean upcoming = appointmentDate != null && !appointmentDate.isBefore(today);
+        boolean isToday = upcoming && appointmentDate.isBefore(today.plusDays(1));
+        Counters doctorCounters = countersOf(doctorId);
+        if (from == null) {
+            doctorCounters.total.incrementAndGet();
+        }
+        if (to == null) {
+            decrement(doctorCounters.total);
+        }
+        doctorCounters.affectedBy(from, upcoming, isToday).forEach(DoctorStatsRegistry::decrement);
+        doctorCounters.affectedBy(to, upcoming, isToday).forEach(AtomicInteger::incrementAndGet);
+    }
+
+    public void onRemoved(Long doctorId, LocalDateTime appointmentDate, AppointmentStatus status) {
+        onTransition(doctorId, appointmentDate, status, null);
+    }
+
+    /**
+     * A patient was registered under a doctor, leaving their previous doctor if any
+     */
+    public void onPatientAssigned(Long doctorId, Long previousDoctorId) {
+        if (doctorId.equals(previousDoctorId)) {
+            return;
+        }
+        if (previousDoctorId != null) {
+            decrement(countersOf(previousDoctorId).patients);
+        }
+        countersOf(doctorId).patients.incrementAndGet();
+    }
+
+    public int pending(Long doctorId) {
+        Counters doctorCounters = counters.get(doctorId);
+        return doctorCounters == null ? 0 : doctorCounters.pending.get();
+    }
+
+    public int accepted(Long doctorId) {
+        Counters doctorCounters = counters.get(doctorId);
+        return doctorCounters == null ? 0 : doctorCounters.accepted.get();
+    }
+
+    public DoctorStats stats(Long doctorId) {
+        Counters doctorCounters = counters.get(doctorId);
+        return doctorCounters == null ? new DoctorStats(0, 0, 0, 0, 0, 0) : doctorCounters.snapshot();
+    }
+
+    /**
+     * Replace the counters with freshly aggregated ones and return how many doctors they corrected
+     */
+    private synchronized int reload() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        List<DoctorStatusCount> counts = appointmentRepository.countByDoctorAndStatus(today, today.plusDays(1));
+        List<DoctorPatientCount> patients = userRepository.countPatientsByDoctor();
+
+        Map<Long, Counters> fresh = new ConcurrentHashMap<>();
+        for (DoctorStatusCount count : counts) {
+            // Appointments without a doctor or status belong to no dashboard
+            if (count.doctorId() == null || count.status() == null) {
+                continue;
+            }
+            Counters doctorCounters = fresh.computeIfAbsent(count.doctorId(), id -> new Counters());
+            doctorCounters.total.addAndGet(count.count().intValue());
+            switch (count.status()) {
+                case PENDING, ACCEPTED -> {
+                    doctorCounters.activeCounter(count.status()).addAndGet(count.upcoming().intValue());
+                    doctorCounters.today.addAndGet(count.today().intValue());
+                }
+                case CANCELED -> doctorCounters.canceled.addAndGet(count.count().intValue());
+                default -> {
+                }
+            }
+        }
+        patients.stream()
+                .filter(count -> count.doctorId() != null)
+                .forEach(count -> fresh.computeIfAbsent(count.doctorId(), id -> new Counters())
+                        .patients.set(count.count().intValue()));
+
+        Map<Long, Counters> previous = counters;
+        counters = fresh;
+        int drifted = 0;
+        for (Map.Entry<Long, Counters> entry : fresh.entrySet()) {
+            Counters before = previous.get(entry.getKey());
+            if (before != null && !before.snapshot().equals(entry.getValue().snapshot())) {
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private Counters countersOf(Long doctorId) {
+        return counters.computeIfAbsent(doctorId, id -> new Counters());
+    }
+
+    private static void decrement(AtomicInteger counter) {
+        counter.updateAndGet(value -> Math.max(0, value - 1));
+    }
+
+    /**
+     * Dashboard counters of one doctor
+     */
+    public record DoctorStats(int total, int today, int pending, int accepted, int canceled, int patients) {
+    }
+
+    private static final class Counters {
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger today = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger accepted = new AtomicInteger();
+        private final AtomicInteger canceled = new AtomicInteger();
+        private final AtomicInteger patients = new AtomicInteger();
+
+        /**
+         * Counters an appointment in the given status falls into, the active ones only while it is upcoming
+         */
+        private List<AtomicInteger> affectedBy(AppointmentStatus status, boolean upcoming, boolean isToday) {
+            if (status == null) {
+                return List.of();
+            }
+            return switch (status) {
+                case PENDING, ACCEPTED -> {
+                    if (!upcoming) {
+                        yield List.of();
+                    }
+                    yield isToday ? List.of(activeCounter(status), today) : List.of(activeCounter(status));
+                }
+                case CANCELED -> List.of(canceled);
+                default -> List.of();
+            };
+        }
+
+        private AtomicInteger activeCounter(AppointmentStatus status) {
+            return status == AppointmentStatus.PENDING ? pending : accepted;
+        }
+
+        private DoctorStats snapshot() {
+            return new DoctorStats(total.get(), today.get(), pending.get(), accepted.get(), canceled.get(), patients.get());
+        }
+    }
+}
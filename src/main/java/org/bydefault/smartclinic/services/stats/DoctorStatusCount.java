@@ -0,0 +1,10 @@
+package org.bydefault.smartclinic.services.stats;
+
+import org.bydefault.smartclinic.entities.AppointmentStatus;
+
+/**
+ * Appointments of a doctor in a given status as aggregated by the database: all of them, those from today on
+ * and those of today
+ */
+public record DoctorStatusCount(Long doctorId, AppointmentStatus status, Long count, Long upcoming, Long today) {
+}
@@ -2,6 +2,8 @@ package org.bydefault.smartclinic.services.users;
 
 import org.bydefault.smartclinic.dtos.common.AppointmentDto;
 import org.bydefault.smartclinic.dtos.common.DoctorDto;
+import org.bydefault.smartclinic.dtos.doctor.DoctorListItemDto;
+import org.bydefault.smartclinic.services.catalog.DoctorDirectory;
 import org.bydefault.smartclinic.dtos.common.MedicalReportDto;
 
 import java.time.LocalDateTime;
@@ -19,9 +21,9 @@ public interface UserServices {
     DoctorDto viewDoctorProfile(Long doctorId);
 
     /**
-     * view all doctors
+     * view all doctors, as the pre-serialised directory of accepted doctors
      */
-    List<DoctorDto> allDoctor();
+    DoctorDirectory.Snapshot allDoctor();
 
     /**
      * view all past appointments of a patient
@@ -49,7 +51,7 @@ public interface UserServices {
      */
     List<AppointmentDto> viewAllAppointments();
 
-    List<DoctorDto> allDoctorBySpecialty(String specialtyName);
+    List<DoctorListItemDto> allDoctorBySpecialty(String specialtyName);
 
 
 
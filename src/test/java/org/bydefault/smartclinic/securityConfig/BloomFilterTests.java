@@ -0,0 +1,71 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    @Test
+    void addedValuesAreNeverMissed() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("token-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("token-" + i), "token-" + i);
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheSizedRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("token-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void overfilledFilterStillHasNoFalseNegatives() {
+        // Sized for one entry, so every bit ends up set
+        BloomFilter filter = new BloomFilter(0, 0.5);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("token-" + i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain("token-" + i), "token-" + i);
+        }
+    }
+
+    @Test
+    void concurrentAddsAreAllVisible() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    filter.add(thread + "-" + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(filter.mightContain(t + "-" + i), t + "-" + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.bydefault.smartclinic.securityConfig;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.bydefault.smartclinic.entities.Role;
+import org.bydefault.smartclinic.entities.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading an access token on each request: the former validate/getUserId/getRole path, which derived the
+ * key and verified the signature three times, against a single {@link JwtServices#verify} parse.
+ * <p>
+ * Not part of the test suite, run it from the test classpath with {@code main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtServices jwtServices;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setAccessTokenExpiration(3_600_000);
+        // verify() reads neither the token cache nor the revocations
+        jwtServices = new JwtServices(jwtConfig, null, null);
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("patient@example.com");
+        user.setUsername("patient");
+        user.setRole(Role.PATIENT);
+        user.setIsVerified(true);
+        token = jwtServices.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public void threeParses(Blackhole blackhole) {
+        Claims claims = legacyClaims(token);
+        Boolean verified = claims.get("verified", Boolean.class);
+        blackhole.consume(verified != null && verified && claims.getExpiration().after(new Date()));
+        blackhole.consume(Long.valueOf(legacyClaims(token).getSubject()));
+        blackhole.consume(Role.valueOf(legacyClaims(token).get("role", String.class)));
+    }
+
+    @Benchmark
+    public void singleVerify(Blackhole blackhole) {
+        blackhole.consume(jwtServices.verify(token).filter(JwtPrincipal::isActive));
+    }
+
+    // What each of validateJwtToken, getUserIdFromJwtToken and getUserRoleFromJwtToken used to do
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
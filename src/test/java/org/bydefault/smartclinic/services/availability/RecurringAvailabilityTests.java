@@ -0,0 +1,95 @@
+package org.bydefault.smartclinic.services.availability;
+
+import org.bydefault.smartclinic.entities.Day;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurringAvailabilityTests {
+
+    private static final int EVERY_DAY = 0b1111111;
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void slotsRunUntilTheLastOneThatFits() {
+        assertEquals(times("09:00", "09:30", "10:00", "10:30"), slots(rule(EVERY_DAY, "09:00", "11:00", 30), MONDAY));
+        // 10:30 would end after 10:45
+        assertEquals(times("09:00", "09:30", "10:00"), slots(rule(EVERY_DAY, "09:00", "10:45", 30), MONDAY));
+        assertEquals(times("09:00", "09:45"), slots(rule(EVERY_DAY, "09:00", "10:30", 45), MONDAY));
+    }
+
+    @Test
+    void slotsNeverWrapPastMidnight() {
+        assertEquals(times("23:00"), slots(rule(EVERY_DAY, "23:00", "23:59", 30), MONDAY));
+        assertEquals(times("00:00", "00:30"), slots(rule(EVERY_DAY, "00:00", "01:00", 30), MONDAY));
+    }
+
+    @Test
+    void onlyTheDaysOfTheMaskApply() {
+        RecurringAvailability mondays = rule(1 << Day.MONDAY.ordinal(), "09:00", "10:00", 30);
+        assertTrue(mondays.appliesOn(Day.MONDAY));
+        assertFalse(mondays.appliesOn(Day.SUNDAY));
+        assertEquals(2, slots(mondays, MONDAY).size());
+        assertTrue(slots(mondays, MONDAY.plusDays(1)).isEmpty());
+        assertEquals(2, slots(mondays, MONDAY.plusWeeks(1)).size());
+
+        RecurringAvailability sundays = rule(1 << Day.SUNDAY.ordinal(), "09:00", "10:00", 30);
+        assertEquals(2, slots(sundays, MONDAY.minusDays(1)).size());
+    }
+
+    @Test
+    void validityBoundsAreInclusive() {
+        RecurringAvailability rule = new RecurringAvailability(1L, 1L, EVERY_DAY, LocalTime.of(9, 0), LocalTime.of(10, 0),
+                30, MONDAY, MONDAY.plusDays(6), Set.of(), Map.of());
+        assertFalse(rule.appliesOn(MONDAY.minusDays(1)));
+        assertTrue(rule.appliesOn(MONDAY));
+        assertTrue(rule.appliesOn(MONDAY.plusDays(6)));
+        assertFalse(rule.appliesOn(MONDAY.plusDays(7)));
+    }
+
+    @Test
+    void exclusionsRemoveDaysAndSingleSlots() {
+        RecurringAvailability rule = new RecurringAvailability(1L, 1L, EVERY_DAY, LocalTime.of(9, 0), LocalTime.of(10, 30),
+                30, MONDAY, null, Set.of(MONDAY), Map.of(MONDAY.plusDays(1), Set.of(LocalTime.of(9, 30))));
+        assertFalse(rule.appliesOn(MONDAY));
+        assertTrue(slots(rule, MONDAY).isEmpty());
+        // A single excluded slot leaves the day applicable
+        assertTrue(rule.appliesOn(MONDAY.plusDays(1)));
+        assertEquals(times("09:00", "10:00"), slots(rule, MONDAY.plusDays(1)));
+        assertEquals(times("09:00", "09:30", "10:00"), slots(rule, MONDAY.plusDays(2)));
+    }
+
+    @Test
+    void startsAtOnlyMatchesSlotStarts() {
+        RecurringAvailability rule = rule(EVERY_DAY, "09:00", "10:30", 30);
+        assertTrue(rule.startsAt(LocalTime.of(9, 0)));
+        assertTrue(rule.startsAt(LocalTime.of(10, 0)));
+        assertFalse(rule.startsAt(LocalTime.of(9, 15)));
+        assertFalse(rule.startsAt(LocalTime.of(8, 30)));
+        // Would end after the rule's end time
+        assertFalse(rule.startsAt(LocalTime.of(10, 30)));
+        assertFalse(rule(EVERY_DAY, "23:00", "23:59", 30).startsAt(LocalTime.of(23, 30)));
+    }
+
+    private static RecurringAvailability rule(int daysMask, String start, String end, int slotMinutes) {
+        return new RecurringAvailability(1L, 1L, daysMask, LocalTime.parse(start), LocalTime.parse(end), slotMinutes,
+                MONDAY.minusWeeks(1), null, Set.of(), Map.of());
+    }
+
+    private static List<LocalTime> slots(RecurringAvailability rule, LocalDate date) {
+        return rule.slotsOn(date).toList();
+    }
+
+    private static List<LocalTime> times(String... times) {
+        return Arrays.stream(times).map(LocalTime::parse).toList();
+    }
+}
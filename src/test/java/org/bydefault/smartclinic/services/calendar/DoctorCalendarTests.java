@@ -0,0 +1,251 @@
+package org.bydefault.smartclinic.services.calendar;
+
+import org.bydefault.smartclinic.entities.AvailabilityRule;
+import org.bydefault.smartclinic.entities.Day;
+import org.bydefault.smartclinic.entities.Doctor;
+import org.bydefault.smartclinic.services.availability.AvailabilityRuleRegistry;
+import org.bydefault.smartclinic.services.availability.AvailabilitySlot;
+import org.bydefault.smartclinic.services.availability.AvailabilitySlotIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorCalendarTests {
+
+    private static final Long DOCTOR = 1L;
+    private static final Long OTHER_DOCTOR = 2L;
+    private static final int LAST_SLOT = DoctorCalendar.SLOTS_PER_DAY - 1;
+
+    // Past days are never open, so every test works a week ahead
+    private final LocalDate day = LocalDate.now().plusDays(7);
+
+    private AvailabilitySlotIndex availabilitySlotIndex;
+    private AvailabilityRuleRegistry availabilityRuleRegistry;
+    private DoctorCalendar calendar;
+    private long nextSlotId = 1;
+
+    @BeforeEach
+    void setUp() {
+        // The repositories are only read by the startup loaders
+        availabilitySlotIndex = new AvailabilitySlotIndex(null);
+        availabilityRuleRegistry = new AvailabilityRuleRegistry(null);
+        calendar = new DoctorCalendar(availabilitySlotIndex, availabilityRuleRegistry, null);
+    }
+
+    @Test
+    void windowMaskWithoutBoundsCoversTheWholeDay() {
+        assertEquals((1L << DoctorCalendar.SLOTS_PER_DAY) - 1, DoctorCalendar.windowMask(null, null));
+        assertEquals(DoctorCalendar.SLOTS_PER_DAY, DoctorCalendar.slotTimes(DoctorCalendar.windowMask(null, null)).size());
+    }
+
+    @Test
+    void windowMaskKeepsSlotsStartingWithinTheWindow() {
+        assertEquals(1L, DoctorCalendar.windowMask(LocalTime.MIDNIGHT, LocalTime.of(0, 30)));
+        assertEquals(bit(20) | bit(21), DoctorCalendar.windowMask(LocalTime.of(10, 0), LocalTime.of(11, 0)));
+        // 10:00 has already started at 10:15, 11:00 starts at the exclusive end
+        assertEquals(bit(21), DoctorCalendar.windowMask(LocalTime.of(10, 15), LocalTime.of(11, 0)));
+        assertEquals(bit(20) | bit(21), DoctorCalendar.windowMask(LocalTime.of(10, 0), LocalTime.of(10, 31)));
+        assertEquals(0L, DoctorCalendar.windowMask(LocalTime.of(10, 15), LocalTime.of(10, 30)));
+        assertEquals(0L, DoctorCalendar.windowMask(LocalTime.of(11, 0), LocalTime.of(10, 0)));
+    }
+
+    @Test
+    void windowMaskEndsAtTheLastSlotOfTheDay() {
+        assertEquals(bit(LAST_SLOT), DoctorCalendar.windowMask(LocalTime.of(23, 30), null));
+        assertEquals(bit(LAST_SLOT), DoctorCalendar.windowMask(LocalTime.of(23, 30), LocalTime.of(23, 59)));
+        assertEquals(0L, DoctorCalendar.windowMask(LocalTime.of(23, 31), null));
+        assertEquals(List.of(LocalTime.of(23, 30)), DoctorCalendar.slotTimes(DoctorCalendar.windowMask(LocalTime.of(23, 30), null)));
+    }
+
+    @Test
+    void cellStartFloorsToTheSlot() {
+        assertEquals(day.atTime(10, 0), DoctorCalendar.cellStart(day.atTime(10, 10)));
+        assertEquals(day.atTime(10, 30), DoctorCalendar.cellStart(day.atTime(10, 30)));
+        assertEquals(day.atTime(23, 30), DoctorCalendar.cellStart(day.atTime(23, 59, 59, 999_999_999)));
+        assertEquals(day.atStartOfDay(), DoctorCalendar.cellStart(day.atStartOfDay()));
+    }
+
+    @Test
+    void openSlotIsFreeUntilBooked() {
+        open(DOCTOR, day.atTime(9, 0));
+
+        assertTrue(calendar.isFree(DOCTOR, day.atTime(9, 0)));
+        // Any time within the cell is the same slot
+        assertTrue(calendar.isFree(DOCTOR, day.atTime(9, 29)));
+        assertFalse(calendar.isFree(DOCTOR, day.atTime(9, 30)));
+        assertFalse(calendar.isFree(OTHER_DOCTOR, day.atTime(9, 0)));
+
+        calendar.book(DOCTOR, day.atTime(9, 10));
+        assertFalse(calendar.isFree(DOCTOR, day.atTime(9, 0)));
+        assertEquals(bit(18), calendar.busyMask(DOCTOR, day));
+
+        calendar.release(DOCTOR, day.atTime(9, 20));
+        assertTrue(calendar.isFree(DOCTOR, day.atTime(9, 0)));
+        assertEquals(0L, calendar.busyMask(DOCTOR, day));
+    }
+
+    @Test
+    void lastSlotOfTheDayCanBeOpenedAndBooked() {
+        open(DOCTOR, day.atTime(23, 30));
+        assertEquals(bit(LAST_SLOT), calendar.freeMask(DOCTOR, day));
+
+        calendar.book(DOCTOR, day.atTime(23, 45));
+        assertEquals(bit(LAST_SLOT), calendar.busyMask(DOCTOR, day));
+        assertFalse(calendar.isFree(DOCTOR, day.atTime(23, 59)));
+        assertEquals(0L, calendar.freeMask(DOCTOR, day));
+        // The next day is untouched
+        assertEquals(0L, calendar.busyMask(DOCTOR, day.plusDays(1)));
+    }
+
+    @Test
+    void refreshDropsSlotsNoLongerOpen() {
+        AvailabilitySlot slot = open(DOCTOR, day.atTime(9, 0));
+        availabilitySlotIndex.remove(slot.id());
+        calendar.refreshAvailability(DOCTOR);
+
+        assertEquals(0L, calendar.freeMask(DOCTOR, day));
+    }
+
+    @Test
+    void weeklySlotsOpenEveryMatchingDay() {
+        Day weekday = Day.valueOf(day.getDayOfWeek().name());
+        availabilitySlotIndex.put(new AvailabilitySlot(nextSlotId++, DOCTOR, weekday, "09:00", null, true));
+        calendar.refreshAvailability(DOCTOR);
+
+        assertTrue(calendar.isFree(DOCTOR, day.atTime(9, 0)));
+        assertTrue(calendar.isFree(DOCTOR, day.plusWeeks(1).atTime(9, 0)));
+        assertFalse(calendar.isFree(DOCTOR, day.plusDays(1).atTime(9, 0)));
+        assertEquals(0L, calendar.weeklyMask(DOCTOR, day.minusWeeks(2)));
+
+        calendar.book(DOCTOR, day.atTime(9, 0));
+        assertFalse(calendar.isFree(DOCTOR, day.atTime(9, 0)));
+        assertTrue(calendar.isFree(DOCTOR, day.plusWeeks(1).atTime(9, 0)));
+    }
+
+    @Test
+    void pruneDropsPastDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        calendar.book(DOCTOR, yesterday.atTime(9, 0));
+        calendar.book(DOCTOR, day.atTime(9, 0));
+
+        calendar.prune();
+        assertEquals(0L, calendar.busyMask(DOCTOR, yesterday));
+        assertEquals(bit(18), calendar.busyMask(DOCTOR, day));
+    }
+
+    @Test
+    void rulesOpenSlotsOnTheFly() {
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setId(1L);
+        rule.setDoctor(Doctor.builder().id(DOCTOR).build());
+        rule.setDaysMask(1 << Day.valueOf(day.getDayOfWeek().name()).ordinal());
+        rule.setStartTime(LocalTime.of(9, 0));
+        rule.setEndTime(LocalTime.of(10, 0));
+        rule.setSlotMinutes(30);
+        rule.setValidFrom(LocalDate.now());
+        availabilityRuleRegistry.put(rule);
+
+        assertEquals(bit(18) | bit(19), calendar.ruleMask(DOCTOR, day));
+        assertEquals(0L, calendar.ruleMask(DOCTOR, day.plusDays(1)));
+        assertEquals(Optional.of(day.atTime(9, 0)), calendar.earliestFreeSlot(DOCTOR, day.atStartOfDay()));
+
+        calendar.book(DOCTOR, day.atTime(9, 0));
+        assertEquals(bit(19), calendar.freeMask(DOCTOR, day));
+    }
+
+    @Test
+    void earliestFreeSlotSkipsSlotsAlreadyStarted() {
+        open(DOCTOR, day.atTime(9, 0));
+        open(DOCTOR, day.atTime(23, 30));
+
+        assertEquals(Optional.of(day.atTime(9, 0)), calendar.earliestFreeSlot(DOCTOR, day.atStartOfDay()));
+        assertEquals(Optional.of(day.atTime(9, 0)), calendar.earliestFreeSlot(DOCTOR, day.atTime(9, 0)));
+        assertEquals(Optional.of(day.atTime(23, 30)), calendar.earliestFreeSlot(DOCTOR, day.atTime(9, 1)));
+        assertEquals(Optional.of(day.atTime(23, 30)), calendar.earliestFreeSlot(DOCTOR, day.atTime(23, 30)));
+        assertEquals(Optional.empty(), calendar.earliestFreeSlot(DOCTOR, day.atTime(23, 31)));
+    }
+
+    @Test
+    void earliestFreeSlotCrossesMidnight() {
+        open(DOCTOR, day.plusDays(1).atStartOfDay());
+
+        assertEquals(Optional.of(day.plusDays(1).atStartOfDay()), calendar.earliestFreeSlot(DOCTOR, day.atTime(23, 45)));
+        calendar.book(DOCTOR, day.plusDays(1).atStartOfDay());
+        assertEquals(Optional.empty(), calendar.earliestFreeSlot(DOCTOR, day.atTime(23, 45)));
+    }
+
+    @Test
+    void earliestFreeSlotLooksNoFurtherThanTheHorizon() {
+        open(DOCTOR, day.plusDays(DoctorCalendar.SEARCH_HORIZON_DAYS).atTime(9, 0));
+
+        assertEquals(Optional.empty(), calendar.earliestFreeSlot(DOCTOR, day.atStartOfDay()));
+        assertTrue(calendar.earliestFreeSlot(DOCTOR, day.plusDays(1).atStartOfDay()).isPresent());
+    }
+
+    @Test
+    void earliestFreeSlotsMergeDoctorsInTimeOrder() {
+        open(DOCTOR, day.atTime(9, 0));
+        open(DOCTOR, day.atTime(11, 0));
+        open(OTHER_DOCTOR, day.atTime(9, 0));
+        open(OTHER_DOCTOR, day.atTime(10, 0));
+
+        List<DoctorCalendar.FreeSlot> slots = calendar.earliestFreeSlots(List.of(OTHER_DOCTOR, DOCTOR),
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 10);
+        assertEquals(List.of(
+                new DoctorCalendar.FreeSlot(DOCTOR, day.atTime(9, 0)),
+                new DoctorCalendar.FreeSlot(OTHER_DOCTOR, day.atTime(9, 0)),
+                new DoctorCalendar.FreeSlot(OTHER_DOCTOR, day.atTime(10, 0)),
+                new DoctorCalendar.FreeSlot(DOCTOR, day.atTime(11, 0))), slots);
+
+        assertEquals(slots.subList(0, 3), calendar.earliestFreeSlots(List.of(DOCTOR, OTHER_DOCTOR),
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 3));
+    }
+
+    @Test
+    void earliestFreeSlotsStopBeforeTheEnd() {
+        open(DOCTOR, day.atTime(9, 0));
+        open(DOCTOR, day.atTime(11, 0));
+        open(OTHER_DOCTOR, day.atTime(10, 0));
+
+        assertEquals(List.of(
+                new DoctorCalendar.FreeSlot(DOCTOR, day.atTime(9, 0)),
+                new DoctorCalendar.FreeSlot(OTHER_DOCTOR, day.atTime(10, 0))),
+                calendar.earliestFreeSlots(List.of(DOCTOR, OTHER_DOCTOR), day.atStartOfDay(), day.atTime(11, 0), 10));
+        assertTrue(calendar.earliestFreeSlots(List.of(DOCTOR), day.atTime(11, 1), day.plusDays(1).atStartOfDay(), 10).isEmpty());
+        assertTrue(calendar.earliestFreeSlots(List.of(), day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 10).isEmpty());
+    }
+
+    @Test
+    void earliestFreeSlotsRunAcrossMidnight() {
+        open(DOCTOR, day.atTime(23, 30));
+        open(DOCTOR, day.plusDays(1).atStartOfDay());
+        open(DOCTOR, day.plusDays(1).atTime(0, 30));
+
+        assertEquals(List.of(
+                new DoctorCalendar.FreeSlot(DOCTOR, day.atTime(23, 30)),
+                new DoctorCalendar.FreeSlot(DOCTOR, day.plusDays(1).atStartOfDay())),
+                calendar.earliestFreeSlots(List.of(DOCTOR), day.atTime(23, 0), day.plusDays(1).atTime(0, 30), 10));
+    }
+
+    private AvailabilitySlot open(Long doctorId, LocalDateTime start) {
+        AvailabilitySlot slot = new AvailabilitySlot(nextSlotId++, doctorId, Day.valueOf(start.getDayOfWeek().name()),
+                start.toLocalTime().toString(), Date.valueOf(start.toLocalDate()), true);
+        availabilitySlotIndex.put(slot);
+        calendar.refreshAvailability(doctorId);
+        return slot;
+    }
+
+    private static long bit(int slot) {
+        return 1L << slot;
+    }
+}
@@ -0,0 +1,106 @@
+package org.bydefault.smartclinic.services.search;
+
+import org.bydefault.smartclinic.entities.Doctor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorGeoIndexTests {
+
+    private DoctorGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // The repository is only read by the startup loader
+        index = new DoctorGeoIndex(null);
+    }
+
+    @Test
+    void nearestIsOrderedByDistanceWithinTheRadius() {
+        locate(1L, 3.85, 11.50);
+        locate(2L, 3.90, 11.52);
+        // About 200 km away
+        locate(3L, 4.05, 9.70);
+
+        assertEquals(List.of(1L, 2L), ids(index.nearest(3.86, 11.51, 50, 5, entry -> true)));
+        assertEquals(List.of(1L), ids(index.nearest(3.86, 11.51, 50, 1, entry -> true)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.nearest(3.86, 11.51, 500, 5, entry -> true)));
+    }
+
+    @Test
+    void nearestKeepsSearchingPastACloserCellBoundary() {
+        // The doctor in the query's own cell is farther than the one just across the cell edge
+        locate(1L, 0.001, 11.5);
+        locate(2L, 0.101, 11.5);
+
+        assertEquals(List.of(2L), ids(index.nearest(0.099, 11.5, 50, 1, entry -> true)));
+    }
+
+    @Test
+    void nearestStopsAtTheRadiusWhenTooFewDoctors() {
+        locate(1L, 3.85, 11.50);
+
+        List<DoctorGeoIndex.NearbyDoctor> nearest = index.nearest(3.85, 11.50, 500, 5, entry -> true);
+        assertEquals(List.of(1L), ids(nearest));
+        assertEquals(0.0, nearest.get(0).distanceKm(), 1e-9);
+        assertTrue(index.nearest(10.0, 11.50, 100, 5, entry -> true).isEmpty());
+    }
+
+    @Test
+    void nearestCrossesTheAntimeridian() {
+        locate(1L, 0.5, 179.99);
+        locate(2L, 0.5, -179.99);
+
+        assertEquals(List.of(1L, 2L), ids(index.nearest(0.5, 179.95, 10, 5, entry -> true)));
+        assertEquals(List.of(2L, 1L), ids(index.nearest(0.5, -179.95, 10, 5, entry -> true)));
+    }
+
+    @Test
+    void nearestCrossesThePoles() {
+        // About 11 km apart over the pole, on opposite meridians
+        locate(1L, 89.95, 179.99);
+        locate(2L, -89.95, 90.0);
+
+        assertEquals(List.of(1L), ids(index.nearest(89.95, 0.0, 20, 5, entry -> true)));
+        assertEquals(List.of(2L), ids(index.nearest(-89.95, -90.0, 20, 5, entry -> true)));
+    }
+
+    @Test
+    void nearestReportsEachDoctorOnceWhenRingsWrapTheGlobe() {
+        locate(1L, 89.95, 10.0);
+        locate(2L, 89.99, -170.0);
+
+        assertEquals(List.of(1L, 2L), ids(index.nearest(89.95, 10.0, 500, 5, entry -> true)));
+    }
+
+    @Test
+    void nearestAppliesTheFilter() {
+        locate(1L, 3.85, 11.50);
+        locate(2L, 3.90, 11.52);
+
+        assertEquals(List.of(2L), ids(index.nearest(3.86, 11.51, 50, 5, entry -> entry.doctorId() == 2L)));
+    }
+
+    @Test
+    void removedAndUnlocatedDoctorsAreNotIndexed() {
+        locate(1L, 3.85, 11.50);
+        index.put(Doctor.builder().id(2L).accepted(true).build());
+        index.put(Doctor.builder().id(3L).accepted(false).latitude(3.85).longitude(11.50).build());
+        assertEquals(1, index.size());
+
+        index.remove(1L);
+        assertTrue(index.nearest(3.85, 11.50, 50, 5, entry -> true).isEmpty());
+    }
+
+    private void locate(Long doctorId, double latitude, double longitude) {
+        index.put(Doctor.builder().id(doctorId).accepted(true).latitude(latitude).longitude(longitude).build());
+    }
+
+    private static List<Long> ids(List<DoctorGeoIndex.NearbyDoctor> nearest) {
+        return nearest.stream().map(DoctorGeoIndex.NearbyDoctor::doctorId).toList();
+    }
+}
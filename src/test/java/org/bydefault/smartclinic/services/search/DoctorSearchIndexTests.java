@@ -0,0 +1,70 @@
+package org.bydefault.smartclinic.services.search;
+
+import org.bydefault.smartclinic.entities.Doctor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorSearchIndexTests {
+
+    @Test
+    void tokenizeLowersCaseAndStripsAccents() {
+        assertEquals(List.of("dr", "jean", "pierre", "yaounde"), DoctorSearchIndex.tokenize("Dr. Jean-Pierre YAOUNDÉ"));
+        assertEquals(List.of("mbbs", "2015"), DoctorSearchIndex.tokenize("  MBBS, 2015  "));
+    }
+
+    @Test
+    void tokenizeOfNothingIsEmpty() {
+        assertTrue(DoctorSearchIndex.tokenize(null).isEmpty());
+        assertTrue(DoctorSearchIndex.tokenize("").isEmpty());
+        assertTrue(DoctorSearchIndex.tokenize("   ").isEmpty());
+        assertTrue(DoctorSearchIndex.tokenize(" - , ").isEmpty());
+    }
+
+    @Test
+    void withinDistanceCountsEdits() {
+        assertTrue(DoctorSearchIndex.withinDistance("cardiology", "cardiology", 0));
+        assertTrue(DoctorSearchIndex.withinDistance("cardiology", "cardiolgy", 1));
+        assertTrue(DoctorSearchIndex.withinDistance("cardio", "kardiyo", 2));
+        assertFalse(DoctorSearchIndex.withinDistance("cardio", "kardiyo", 1));
+        assertTrue(DoctorSearchIndex.withinDistance("kitten", "sitting", 3));
+        assertFalse(DoctorSearchIndex.withinDistance("kitten", "sitting", 2));
+    }
+
+    @Test
+    void withinDistanceHandlesEmptyStrings() {
+        assertTrue(DoctorSearchIndex.withinDistance("", "", 0));
+        assertTrue(DoctorSearchIndex.withinDistance("", "ab", 2));
+        assertFalse(DoctorSearchIndex.withinDistance("", "abc", 2));
+        assertFalse(DoctorSearchIndex.withinDistance("abc", "", 2));
+    }
+
+    @Test
+    void scoreMatchesExactPrefixAndTypo() {
+        DoctorSearchIndex index = new DoctorSearchIndex(null);
+        index.put(Doctor.builder().id(1L).accepted(true).location("Yaoundé").build());
+        index.put(Doctor.builder().id(2L).accepted(true).location("Douala").build());
+
+        assertEquals(List.of(1L), List.copyOf(index.score("yaounde").keySet()));
+        assertEquals(List.of(1L), List.copyOf(index.score("yao").keySet()));
+        assertEquals(List.of(1L), List.copyOf(index.score("yaoundi").keySet()));
+        assertTrue(index.score("").isEmpty());
+        assertTrue(index.score("yaounde douala").isEmpty());
+    }
+
+    @Test
+    void onlyAcceptedDoctorsAreSearchable() {
+        DoctorSearchIndex index = new DoctorSearchIndex(null);
+        index.put(Doctor.builder().id(1L).accepted(false).location("Yaoundé").build());
+        assertEquals(0, index.size());
+
+        index.put(Doctor.builder().id(1L).accepted(true).location("Yaoundé").build());
+        assertEquals(1, index.size());
+        index.remove(1L);
+        assertTrue(index.score("yaounde").isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package org.bydefault.smartclinic.services.search;
+
+import org.bydefault.smartclinic.dtos.common.SuggestionDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTests {
+
+    private static final SuggestionDto CARDIOLOGY = new SuggestionDto(SuggestionDto.Type.SPECIALTY, 1L, "Cardiology");
+    private static final SuggestionDto DERMATOLOGY = new SuggestionDto(SuggestionDto.Type.SPECIALTY, 2L, "Dermatology");
+    private static final SuggestionDto CARL_SMITH = new SuggestionDto(SuggestionDto.Type.DOCTOR, 3L, "Carl Smith");
+
+    private final SuggestionTrie trie = SuggestionTrie.build(List.of(
+            new SuggestionTrie.Entry(CARDIOLOGY, List.of("Cardiology"), 5),
+            new SuggestionTrie.Entry(DERMATOLOGY, List.of("Dermatology"), 3),
+            new SuggestionTrie.Entry(CARL_SMITH, List.of("Carl Smith", "Smith"), 2)));
+
+    @Test
+    void emptyPrefixesSuggestNothing() {
+        assertTrue(trie.suggest(null, 10).isEmpty());
+        assertTrue(trie.suggest("", 10).isEmpty());
+        assertTrue(trie.suggest("   ", 10).isEmpty());
+        // Only separators, normalised away to nothing
+        assertTrue(trie.suggest("-!", 10).isEmpty());
+    }
+
+    @Test
+    void emptyTrieSuggestsNothing() {
+        assertTrue(SuggestionTrie.empty().suggest("car", 10).isEmpty());
+        assertEquals(0, SuggestionTrie.empty().size());
+    }
+
+    @Test
+    void prefixesMatchIgnoringCaseAndAccents() {
+        assertEquals(List.of(CARDIOLOGY, CARL_SMITH), trie.suggest("car", 10));
+        assertEquals(List.of(CARDIOLOGY, CARL_SMITH), trie.suggest("CÁR", 10));
+        assertEquals(List.of(CARL_SMITH), trie.suggest("smi", 10));
+        assertEquals(List.of(CARL_SMITH), trie.suggest("carl  smith", 10));
+        assertTrue(trie.suggest("cardiologyx", 10).isEmpty());
+    }
+
+    @Test
+    void singleCharacterPrefixReturnsEveryMatchByWeight() {
+        assertEquals(List.of(CARDIOLOGY, CARL_SMITH), trie.suggest("c", 10));
+        assertEquals(List.of(CARDIOLOGY), trie.suggest("c", 1));
+    }
+
+    @Test
+    void entryFoundThroughSeveralKeysIsSuggestedOnce() {
+        SuggestionTrie smiths = SuggestionTrie.build(List.of(
+                new SuggestionTrie.Entry(CARL_SMITH, List.of("Smith", "Smithson"), 1)));
+        assertEquals(List.of(CARL_SMITH), smiths.suggest("smith", 10));
+    }
+
+    @Test
+    void equalWeightsAreOrderedByLabel() {
+        SuggestionDto beta = new SuggestionDto(SuggestionDto.Type.DOCTOR, 10L, "beta");
+        SuggestionDto alpha = new SuggestionDto(SuggestionDto.Type.DOCTOR, 11L, "Alpha");
+        SuggestionTrie tied = SuggestionTrie.build(List.of(
+                new SuggestionTrie.Entry(beta, List.of("x beta"), 1),
+                new SuggestionTrie.Entry(alpha, List.of("x alpha"), 1)));
+        assertEquals(List.of(alpha, beta), tied.suggest("x", 10));
+    }
+
+    @Test
+    void suggestionsAreCappedPerNode() {
+        List<SuggestionTrie.Entry> entries = new ArrayList<>();
+        for (long i = 0; i < SuggestionTrie.MAX_SUGGESTIONS + 5; i++) {
+            SuggestionDto suggestion = new SuggestionDto(SuggestionDto.Type.DOCTOR, i, "Doctor " + i);
+            entries.add(new SuggestionTrie.Entry(suggestion, List.of("Doctor " + i), i));
+        }
+        List<SuggestionDto> suggestions = SuggestionTrie.build(entries).suggest("doc", 100);
+        assertEquals(SuggestionTrie.MAX_SUGGESTIONS, suggestions.size());
+        // Heaviest first
+        assertEquals(SuggestionTrie.MAX_SUGGESTIONS + 4L, suggestions.get(0).getId());
+    }
+}